@@ -0,0 +1,125 @@
+-- Dynamic search benchmark: catch-all "(:param IS NULL OR ...)" query vs. the
+-- Specification-built query that contains only the supplied predicates.
+--
+-- Usage (against a scratch database, NOT production):
+--   psql -d bookmind_bench -f bench/dynamic_search.sql > bench_output.txt
+--
+-- Builds a synthetic 1M-row books table with the indexes from db/migration (V1 trigram,
+-- V5 sort indexes), then runs EXPLAIN (ANALYZE, BUFFERS) for the removed catch-all query of
+-- BookRepository.searchBooks and for the SQL that BookQueryParser/BookSpecifications render
+-- for the same criteria through /books/search/paged. The catch-all statement is prepared and
+-- forced to a generic plan, which is what the JDBC driver switches to after five executions:
+-- one plan for every combination of supplied parameters, so no predicate can drive an index.
+-- Compare the plan shapes and the "Execution Time" lines.
+
+\timing on
+
+DROP TABLE IF EXISTS books CASCADE;
+CREATE TABLE books (
+    id               bigserial PRIMARY KEY,
+    title            varchar(255),
+    author           varchar(255),
+    description      varchar(2000),
+    genre            varchar(255),
+    language         varchar(255),
+    publisher        varchar(255),
+    publication_year integer NOT NULL,
+    price            double precision NOT NULL,
+    available        boolean,
+    pages            integer NOT NULL,
+    average_rating   double precision NOT NULL,
+    cover_image_url  varchar(255),
+    isbn             varchar(255),
+    created_at       timestamp,
+    updated_at       timestamp,
+    ai_summary       varchar(4000),
+    summary_generated_at timestamp
+);
+
+INSERT INTO books (title, author, description, genre, language, publisher, publication_year,
+                   price, available, pages, average_rating, isbn, created_at, updated_at)
+SELECT 'The ' || (ARRAY['Silent','Hidden','Last','Crimson','Lost','Winter','Iron','Golden'])[1 + g % 8]
+           || ' ' || (ARRAY['Kingdom','River','Garden','Empire','Tower','Voyage','Forest','Code'])[1 + (g / 8) % 8]
+           || ' ' || g,
+       (ARRAY['Ursula Le Guin','J.R.R. Tolkien','Octavia Butler','Terry Pratchett','Toni Morrison',
+              'Haruki Murakami','Ann Leckie','Neil Gaiman'])[1 + (g / 64) % 8] || ' ' || (g % 5000),
+       repeat(md5(g::text), 40),
+       (ARRAY['Fantasy','Science Fiction','Mystery','Romance','History','Poetry','Thriller','Biography'])[1 + (g / 7) % 8],
+       'English', 'Publisher ' || (g % 300), 1950 + g % 75,
+       round((5 + random() * 45)::numeric, 2), g % 10 <> 0, 100 + g % 900,
+       round((1 + random() * 4)::numeric, 2), lpad(g::text, 13, '9'), now(), now()
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE books;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_author_trgm ON books USING gin (LOWER(author) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_genre_trgm ON books USING gin (LOWER(genre) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_title_id ON books (title, id);
+CREATE INDEX IF NOT EXISTS idx_books_price_id ON books (price, id);
+CREATE INDEX IF NOT EXISTS idx_books_average_rating_id ON books (average_rating, id);
+CREATE INDEX IF NOT EXISTS idx_books_publication_year_id ON books (publication_year, id);
+ANALYZE books;
+
+-- 1. Removed catch-all query, generic plan
+SET plan_cache_mode = force_generic_plan;
+PREPARE catch_all(text, text, text, text, float8, float8, float8, boolean) AS
+SELECT DISTINCT * FROM books b
+WHERE ($1 IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', $1, '%')))
+  AND ($2 IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', $2, '%')))
+  AND ($3 IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', $3, '%')))
+  AND ($4 IS NULL OR LOWER(b.description) LIKE LOWER(CONCAT('%', $4, '%')))
+  AND ($5 IS NULL OR b.price >= $5)
+  AND ($6 IS NULL OR b.price <= $6)
+  AND ($7 IS NULL OR b.average_rating >= $7)
+  AND ($8 IS NULL OR b.available = $8)
+ORDER BY b.price ASC
+LIMIT 20;
+
+-- q=author:le guin price:<20 rating:>=4
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all(NULL, 'le guin', NULL, NULL, NULL, 20, 4, NULL);
+-- q=crimson tower
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all('crimson tower', NULL, NULL, NULL, NULL, NULL, NULL, NULL);
+-- maxPrice=6 (selective range)
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all(NULL, NULL, NULL, NULL, NULL, 6, NULL, NULL);
+DEALLOCATE catch_all;
+RESET plan_cache_mode;
+
+-- 2. Specification-built queries for the same criteria, sortBy=price (ORDER BY price, id)
+
+-- q=author:le guin price:<20 rating:>=4
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM books b
+WHERE LOWER(b.author) LIKE '%le guin%' AND b.price < 20 AND b.average_rating >= 4
+ORDER BY b.price, b.id
+LIMIT 21;
+
+-- q=crimson tower
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM books b
+WHERE LOWER(b.title) LIKE '%crimson tower%'
+ORDER BY b.price, b.id
+LIMIT 21;
+
+-- maxPrice=6 (selective range: index range scan on idx_books_price_id)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM books b
+WHERE b.price <= 6
+ORDER BY b.price, b.id
+LIMIT 21;
+
+-- 3. Keyset page deep into the catalog: sortBy=year&direction=desc, cursor after (1990, 500000).
+--    The tie-breaker follows the sort direction, so this is a backward scan of idx_books_publication_year_id
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM books b
+WHERE b.publication_year < 1990 OR (b.publication_year = 1990 AND b.id < 500000)
+ORDER BY b.publication_year DESC, b.id DESC
+LIMIT 21;
+
+-- The previous mixed-direction order (year DESC, id ASC) cannot use the same index without a sort
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM books b
+WHERE b.publication_year < 1990 OR (b.publication_year = 1990 AND b.id > 500000)
+ORDER BY b.publication_year DESC, b.id ASC
+LIMIT 21;
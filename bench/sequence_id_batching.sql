@@ -0,0 +1,98 @@
+-- Insert batching benchmark: IDENTITY keys vs. pooled-lo sequence keys.
+--
+-- Usage (against a scratch database, NOT production):
+--   psql -d bookmind_bench -f bench/sequence_id_batching.sql > bench_output.txt
+--
+-- With GenerationType.IDENTITY Hibernate must execute every INSERT on its own to read the
+-- generated key back, so JDBC batching is disabled. With a pooled-lo sequence (allocationSize 50)
+-- the keys are known before flush and a batch of 50 rows is sent as one multi-row INSERT
+-- (reWriteBatchedInserts=true on the JDBC URL). Each \gexec row below is a separate statement,
+-- i.e. one client round trip, so the timings reproduce the statement shapes of both strategies
+-- for a bulk catalog load and for OrderService.createOrderFromCart. Compare the section start
+-- timestamps rather than the per-statement timings.
+--
+-- To confirm the application side, start BookMind with
+--   spring.jpa.properties.hibernate.generate_statistics=true
+-- and compare "JDBC statements executed" with "JDBC batches executed" in the session metrics
+-- logged after a checkout or a catalog import.
+
+\timing on
+
+DROP TABLE IF EXISTS bench_order_items, bench_orders, bench_books CASCADE;
+DROP SEQUENCE IF EXISTS bench_books_seq, bench_orders_seq, bench_order_items_seq;
+
+CREATE TABLE bench_books (
+    id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title     varchar(255),
+    author    varchar(255),
+    price     double precision NOT NULL,
+    available boolean
+);
+CREATE TABLE bench_orders (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id      bigint NOT NULL,
+    total_amount double precision NOT NULL,
+    order_date   timestamp
+);
+CREATE TABLE bench_order_items (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id bigint NOT NULL REFERENCES bench_orders (id),
+    book_id  bigint NOT NULL,
+    quantity integer NOT NULL,
+    price    double precision NOT NULL
+);
+
+-- 1. Bulk catalog load, IDENTITY: 20,000 single-row INSERT ... RETURNING id statements
+SELECT clock_timestamp() AS section_1_start;
+SELECT format('INSERT INTO bench_books (title, author, price, available) VALUES (%L, %L, %s, true) RETURNING id',
+              'Title ' || g, 'Author ' || (g % 500), 5 + g % 45)
+FROM generate_series(1, 20000) AS g
+\gexec
+
+TRUNCATE bench_books;
+
+-- 2. Bulk catalog load, pooled-lo sequence: one nextval() and one 50-row INSERT per block
+SELECT clock_timestamp() AS section_2_start;
+CREATE SEQUENCE bench_books_seq INCREMENT BY 50;
+SELECT format('SELECT nextval(%L)', 'bench_books_seq') AS allocate,
+       format('INSERT INTO bench_books (id, title, author, price, available) VALUES %s',
+              string_agg(format('(%s, %L, %L, %s, true)', g, 'Title ' || g, 'Author ' || (g % 500), 5 + g % 45), ', '))
+FROM generate_series(1, 20000) AS g
+GROUP BY (g - 1) / 50
+\gexec
+
+-- 3. Checkout, IDENTITY: per order one INSERT for the order and one per item (1,000 orders x 10 items)
+SELECT clock_timestamp() AS section_3_start;
+SELECT format('INSERT INTO bench_orders (user_id, total_amount, order_date) VALUES (%s, 100, now()) RETURNING id', o)
+FROM generate_series(1, 1000) AS o
+\gexec
+
+SELECT format('INSERT INTO bench_order_items (order_id, book_id, quantity, price) VALUES (%s, %s, 1, 10) RETURNING id',
+              o.id, i)
+FROM bench_orders o, generate_series(1, 10) AS i
+\gexec
+
+TRUNCATE bench_order_items, bench_orders;
+
+-- 4. Checkout, pooled-lo sequences: the order INSERT plus one batched INSERT for its items.
+--    nextval() is amortised over 50 orders (bench_orders_seq) and 5 orders (bench_order_items_seq);
+--    \gexec skips the NULL cells.
+SELECT clock_timestamp() AS section_4_start;
+CREATE SEQUENCE bench_orders_seq INCREMENT BY 50;
+CREATE SEQUENCE bench_order_items_seq INCREMENT BY 50;
+SELECT CASE WHEN o % 50 = 1 THEN format('SELECT nextval(%L)', 'bench_orders_seq') END AS allocate_order,
+       CASE WHEN o % 5 = 1 THEN format('SELECT nextval(%L)', 'bench_order_items_seq') END AS allocate_items,
+       format('INSERT INTO bench_orders (id, user_id, total_amount, order_date) VALUES (%s, %s, 100, now())', o, o),
+       format('INSERT INTO bench_order_items (id, order_id, book_id, quantity, price) VALUES %s',
+              (SELECT string_agg(format('(%s, %s, %s, 1, 10)', (o - 1) * 10 + i, o, i), ', ')
+               FROM generate_series(1, 10) AS i))
+FROM generate_series(1, 1000) AS o
+\gexec
+
+SELECT clock_timestamp() AS finished;
+
+SELECT count(*) AS books FROM bench_books;
+SELECT count(*) AS orders, (SELECT count(*) FROM bench_order_items) AS order_items FROM bench_orders;
+
+DROP TABLE bench_order_items, bench_orders, bench_books;
+DROP SEQUENCE bench_books_seq, bench_orders_seq, bench_order_items_seq;
@@ -0,0 +1,100 @@
+-- Trigram search benchmark: catch-all LIKE query vs. the pg_trgm search path.
+--
+-- Usage (against a scratch database, NOT production):
+--   psql -d bookmind_bench -f bench/trigram_search.sql > bench_output.txt
+--
+-- Builds a synthetic 1M-row books table, then runs EXPLAIN (ANALYZE, BUFFERS) for
+-- the query issued by BookRepository.searchBooksWithPagination and for the query
+-- rendered by BookTrigramSearchImpl, before and after creating the trigram indexes.
+
+\timing on
+
+DROP TABLE IF EXISTS books CASCADE;
+CREATE TABLE books (
+    id               bigserial PRIMARY KEY,
+    title            varchar(255),
+    author           varchar(255),
+    description      varchar(2000),
+    genre            varchar(255),
+    language         varchar(255),
+    publisher        varchar(255),
+    publication_year integer NOT NULL,
+    price            double precision NOT NULL,
+    available        boolean,
+    pages            integer NOT NULL,
+    average_rating   double precision NOT NULL,
+    cover_image_url  varchar(255),
+    isbn             varchar(255),
+    created_at       timestamp,
+    updated_at       timestamp,
+    ai_summary       varchar(4000),
+    summary_generated_at timestamp
+);
+
+INSERT INTO books (title, author, description, genre, language, publisher, publication_year,
+                   price, available, pages, average_rating, isbn, created_at, updated_at)
+SELECT 'The ' || (ARRAY['Silent','Hidden','Last','Crimson','Lost','Winter','Iron','Golden'])[1 + g % 8]
+           || ' ' || (ARRAY['Kingdom','River','Garden','Empire','Tower','Voyage','Forest','Code'])[1 + (g / 8) % 8]
+           || ' ' || g,
+       (ARRAY['Ursula Le Guin','J.R.R. Tolkien','Octavia Butler','Terry Pratchett','Toni Morrison',
+              'Haruki Murakami','Ann Leckie','Neil Gaiman'])[1 + (g / 64) % 8] || ' ' || (g % 5000),
+       repeat(md5(g::text), 40),
+       (ARRAY['Fantasy','Science Fiction','Mystery','Romance','History','Poetry','Thriller','Biography'])[1 + (g / 7) % 8],
+       'English', 'Publisher ' || (g % 300), 1950 + g % 75,
+       round((5 + random() * 45)::numeric, 2), g % 10 <> 0, 100 + g % 900,
+       round((1 + random() * 4)::numeric, 2), lpad(g::text, 13, '9'), now(), now()
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE books;
+
+-- 1. Current catch-all query (BookRepository.searchBooksWithPagination), no trigram indexes
+PREPARE catch_all(text, text, text, text, float8, float8, float8, boolean) AS
+SELECT DISTINCT * FROM books b
+WHERE ($1 IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', $1, '%')))
+  AND ($2 IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', $2, '%')))
+  AND ($3 IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', $3, '%')))
+  AND ($4 IS NULL OR LOWER(b.description) LIKE LOWER(CONCAT('%', $4, '%')))
+  AND ($5 IS NULL OR b.price >= $5)
+  AND ($6 IS NULL OR b.price <= $6)
+  AND ($7 IS NULL OR b.average_rating >= $7)
+  AND ($8 IS NULL OR b.available = $8)
+ORDER BY b.title ASC
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all('crimson tower', NULL, NULL, NULL, NULL, NULL, NULL, NULL);
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all(NULL, 'le guin', NULL, NULL, NULL, NULL, NULL, NULL);
+
+-- 2. Trigram path without indexes (isolates the predicate rewrite)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM books b
+WHERE LOWER(b.title) LIKE '%crimson tower%'
+ORDER BY similarity(LOWER(b.title), 'crimson tower') DESC, b.id
+LIMIT 10;
+
+-- 3. Trigram path with the GIN indexes from db/migration/V1__trigram_search_indexes.sql
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_author_trgm ON books USING gin (LOWER(author) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_genre_trgm ON books USING gin (LOWER(genre) gin_trgm_ops);
+ANALYZE books;
+
+-- The catch-all query cannot use the new indexes because of the "$1 IS NULL OR" wrapper
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all('crimson tower', NULL, NULL, NULL, NULL, NULL, NULL, NULL);
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM books b
+WHERE LOWER(b.title) LIKE '%crimson tower%'
+ORDER BY similarity(LOWER(b.title), 'crimson tower') DESC, b.id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM books b
+WHERE LOWER(b.author) LIKE '%le guin%' AND b.price <= 20
+ORDER BY similarity(LOWER(b.author), 'le guin') DESC, b.id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM books b
+WHERE LOWER(b.title) LIKE '%crimson tower%';
+
+DEALLOCATE catch_all;
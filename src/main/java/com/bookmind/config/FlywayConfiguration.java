@@ -0,0 +1,38 @@
+package com.bookmind.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Runs the Flyway migrations after Hibernate has created or updated the tables.
+ *
+ * The base schema is owned by Hibernate (ddl-auto=update), and the migrations add indexes and
+ * sequences to its tables, so they cannot run before the EntityManagerFactory as Spring Boot
+ * would by default. Boot's own initializer is given a no-op strategy and the migration runs
+ * once the EntityManagerFactory exists; a failure aborts startup.
+ */
+@Configuration
+public class FlywayConfiguration {
+
+    /**
+     * Skip the migration Boot runs before JPA starts
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+        };
+    }
+
+    /**
+     * Migrate once Hibernate has updated the schema
+     */
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigrationAfterJpa(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
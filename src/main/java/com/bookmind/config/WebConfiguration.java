@@ -0,0 +1,83 @@
+package com.bookmind.config;
+
+import java.util.Set;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Binary response encodings for clients that ask for them.
+ *
+ * A request to the catalog, cart, order or wishlist endpoints with {@code Accept: application/cbor}
+ * or {@code Accept: application/x-jackson-smile} gets the same object tree as the JSON response,
+ * encoded as CBOR or Smile; request bodies may use either encoding with the matching Content-Type.
+ * JSON stays the default: these converters replace Spring MVC's default CBOR and Smile converters
+ * in place, after the JSON converter, so {@code Accept: *}{@code /*} and requests without an
+ * Accept header still get JSON. Authentication, summary and import responses are JSON only.
+ */
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private static final String[] NEGOTIATED_PATHS = {
+            "/v1/books/**", "/v1/categories/**", "/v1/cart/**", "/v1/orders/**", "/v1/wishlists/**"};
+    // Under /v1/books but not catalog responses: export streams its own format
+    private static final String[] BOOK_PATHS_NOT_NEGOTIATED = {
+            "/v1/books/export", "/v1/books/import", "/v1/books/*/summary/**", "/v1/books/summaries/**"};
+    private static final String[] JSON_ONLY_PATHS = {
+            "/auth/**", "/v1/books/import", "/v1/books/*/summary/**", "/v1/books/summaries/**"};
+
+    /**
+     * CBOR converter built from Boot's ObjectMapper builder, so dates, inclusion and
+     * feature settings match the JSON responses
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Smile converter built from Boot's ObjectMapper builder
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Mark negotiated responses as varying by Accept, so caches keep the JSON and binary
+     * representations of a URL apart, and let the other endpoints produce JSON only
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns(NEGOTIATED_PATHS).excludePathPatterns(BOOK_PATHS_NOT_NEGOTIATED);
+
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                request.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, Set.of(MediaType.APPLICATION_JSON));
+                return true;
+            }
+        }).addPathPatterns(JSON_ONLY_PATHS);
+    }
+}
@@ -1,12 +1,22 @@
 package com.bookmind.controller;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,14 +26,46 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.bookmind.dto.BookDetail;
+import com.bookmind.dto.BookIdsRequest;
+import com.bookmind.dto.BookImportResult;
+import com.bookmind.dto.BookListItem;
+import com.bookmind.dto.BookSuggestion;
+import com.bookmind.dto.CatalogStats;
+import com.bookmind.dto.CategoryAssignmentRequest;
+import com.bookmind.dto.CategoryAssignmentResult;
+import com.bookmind.dto.CategorySummaryDto;
+import com.bookmind.dto.CursorPage;
+import com.bookmind.dto.FacetedSearchResponse;
+import com.bookmind.dto.FuzzySearchResponse;
+import com.bookmind.dto.RatingSummary;
+import com.bookmind.dto.ReviewDto;
+import com.bookmind.dto.UpdateReviewRatingRequest;
+import com.bookmind.mapper.BookMapper;
 import com.bookmind.model.Book;
+import com.bookmind.repository.BookListQueries;
+import com.bookmind.service.BookCache;
+import com.bookmind.service.BookExportService;
+import com.bookmind.service.BookFacetIndex;
+import com.bookmind.service.BookImportService;
 import com.bookmind.service.BookService;
+import com.bookmind.service.CatalogStatistics;
+import com.bookmind.service.ResponseBodyCache;
+import com.bookmind.service.SearchCountCache;
+import com.bookmind.utility.FieldSelection;
+import com.bookmind.utility.ResourceVersion;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,25 +81,95 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/v1")
 public class BookController {
 
+    // Fields a fields= parameter may select on GET /books/{id}
+    private static final List<String> DETAIL_FIELDS = Stream.concat(
+            BookListQueries.DETAIL_FIELDS.stream(), Stream.of("categories")).toList();
+
     private final BookService bookService;
+    private final BookExportService bookExportService;
+    private final BookImportService bookImportService;
+    private final CatalogStatistics catalogStatistics;
+    private final BookCache bookCache;
+    private final ResponseBodyCache responseBodyCache;
 
     /**
-     * Get all books (public)
+     * Get all books, or only the books with the given IDs (public)
      */
     @GetMapping("/books")
-    public ResponseEntity<List<Book>> getAllBooks() {
+    public ResponseEntity<List<BookListItem>> getAllBooks(
+            @RequestParam(required = false)
+            @Size(max = BookIdsRequest.MAX_IDS, message = "Can fetch at most 1000 books at once") List<Long> ids) {
+        if (ids != null) {
+            log.debug("Fetching {} books by ID", ids.size());
+            return ResponseEntity.ok(bookService.getBooksByIds(ids));
+        }
         log.debug("Fetching all books");
         return ResponseEntity.ok(bookService.getAllBooks());
     }
 
+    /**
+     * Get the books with the given IDs in one call, for ID lists too long for a URL (public)
+     */
+    @PostMapping("/books/batch-get")
+    public ResponseEntity<List<BookListItem>> getBooksByIds(@Valid @RequestBody BookIdsRequest request) {
+        log.debug("Fetching {} books by ID", request.getIds().size());
+        return ResponseEntity.ok(bookService.getBooksByIds(request.getIds()));
+    }
+
+    /**
+     * Stream the whole catalog as NDJSON or CSV (Admin only)
+     */
+    @GetMapping("/books/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        BookExportService.Format exportFormat = BookExportService.Format.from(format);
+        log.info("Admin exporting catalog as {}", exportFormat);
+
+        StreamingResponseBody body = outputStream -> bookExportService.exportCatalog(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"books." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Bulk import a publisher catalog streamed as CSV or NDJSON (Admin only).
+     * Books are matched by ISBN: new ones are inserted, existing ones updated.
+     */
+    @PostMapping("/books/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookImportResult> importBooks(
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream body) throws IOException {
+        BookImportService.Format importFormat = BookImportService.Format.from(format);
+        log.info("Admin importing catalog as {}", importFormat);
+        return ResponseEntity.ok(bookImportService.importCatalog(importFormat, body));
+    }
+
     /**
      * Get a book by ID (public)
      */
     @GetMapping("/books/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+    public ResponseEntity<Object> getBookById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         log.debug("Fetching book with ID: {}", id);
-        Book book = bookService.getBookById(id);
-        return ResponseEntity.ok(book);
+        FieldSelection selection = FieldSelection.parse(fields, DETAIL_FIELDS);
+        Optional<ResourceVersion> version = bookService.getBookVersion(id);
+        boolean cacheable = version.isPresent() && selection.isAll() && acceptsJson(webRequest);
+        if (version.isPresent()
+                && (cacheable ? cachedJsonVersion(version.get(), webRequest) : version.get()).isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        if (cacheable) {
+            return cachedJson(ResponseBodyCache.bookKey(id), version.get().getEtag(),
+                    () -> bookService.getBookDetail(id, selection), webRequest);
+        }
+        BookDetail book = bookService.getBookDetail(id, selection);
+        return ResponseEntity.ok(selection.project(book));
     }
 
     /**
@@ -65,21 +177,24 @@ public class BookController {
      */
     @PostMapping("/books")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Book> addBook(@RequestBody @Valid Book book) {
+    public ResponseEntity<BookDetail> addBook(@RequestBody @Valid Book book) {
         log.info("Admin adding new book: {}", book.getTitle());
         Book savedBook = bookService.addBook(book);
-        return new ResponseEntity<>(savedBook, HttpStatus.CREATED);
+        return new ResponseEntity<>(BookMapper.toBookDetail(savedBook), HttpStatus.CREATED);
     }
 
     /**
-     * Update a book (Admin only)
+     * Update a book; with If-Match, only if it has not changed since it was read (Admin only)
      */
     @PutMapping("/books/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Book> updateBook(@PathVariable Long id, @RequestBody @Valid Book book) {
+    public ResponseEntity<BookDetail> updateBook(
+            @PathVariable Long id,
+            @RequestBody @Valid Book book,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Admin updating book with ID: {}", id);
-        Book updatedBook = bookService.updateBook(id, book);
-        return ResponseEntity.ok(updatedBook);
+        Book updatedBook = bookService.updateBook(id, book, ifMatch);
+        return ResponseEntity.ok(BookMapper.toBookDetail(updatedBook));
     }
 
     /**
@@ -137,24 +252,43 @@ public class BookController {
         return ResponseEntity.ok().build();
     }
     
+    /**
+     * Change the rating of a book's review (Admin only)
+     */
+    @PatchMapping("/books/{bookId}/reviews/{reviewId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> updateReviewRating(@PathVariable Long bookId, @PathVariable Long reviewId,
+            @Valid @RequestBody UpdateReviewRatingRequest request) {
+        log.info("Admin changing rating of review {} on book {} to {}", reviewId, bookId, request.getRating());
+        bookService.updateReviewRating(bookId, reviewId, request.getRating());
+        return ResponseEntity.ok().build();
+    }
+    
+    /**
+     * Get the average rating, rating count and star histogram of a book (public)
+     */
+    @GetMapping("/books/{id}/ratings")
+    public ResponseEntity<RatingSummary> getRatingSummary(@PathVariable Long id) {
+        log.debug("Fetching rating summary for book {}", id);
+        return ResponseEntity.ok(bookService.getRatingSummary(id));
+    }
+    
     /**
      * Get categories for a specific book (public)
      */
     @GetMapping("/books/{id}/categories")
-    public ResponseEntity<?> getBookCategories(@PathVariable Long id) {
+    public ResponseEntity<List<CategorySummaryDto>> getBookCategories(@PathVariable Long id) {
         log.debug("Fetching categories for book {}", id);
-        Book book = bookService.getBookById(id);
-        return ResponseEntity.ok(book.getCategories());
+        return ResponseEntity.ok(bookService.getBookCategories(id));
     }
     
     /**
      * Get reviews for a specific book (public)
      */
     @GetMapping("/books/{id}/reviews")
-    public ResponseEntity<?> getBookReviews(@PathVariable Long id) {
+    public ResponseEntity<List<ReviewDto>> getBookReviews(@PathVariable Long id) {
         log.debug("Fetching reviews for book {}", id);
-        Book book = bookService.getBookById(id);
-        return ResponseEntity.ok(book.getReviews());
+        return ResponseEntity.ok(bookService.getBookReviews(id));
     }
     
     /**
@@ -164,9 +298,7 @@ public class BookController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, String>> addCategoriesToBook(@PathVariable Long bookId, @RequestBody List<Long> categoryIds) {
         log.info("Admin bulk adding {} categories to book {}", categoryIds.size(), bookId);
-        for (Long categoryId : categoryIds) {
-            bookService.addCategoryToBook(bookId, categoryId);
-        }
+        bookService.addCategoriesToBook(bookId, categoryIds);
         return ResponseEntity.ok(Map.of("message", "Categories added successfully"));
     }
     
@@ -177,32 +309,81 @@ public class BookController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, String>> removeAllCategoriesFromBook(@PathVariable Long bookId) {
         log.info("Admin removing all categories from book {}", bookId);
-        Book book = bookService.getBookById(bookId);
-        var categories = new ArrayList<>(book.getCategories());
-        for (var category : categories) {
-            bookService.removeCategoryFromBook(bookId, category.getId());
-        }
+        bookService.removeAllCategoriesFromBook(bookId);
         return ResponseEntity.ok(Map.of("message", "All categories removed successfully"));
     }
+
+    /**
+     * Reclassify many books at once: add and/or remove categories on every listed book (Admin only)
+     */
+    @PostMapping("/books/categories/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CategoryAssignmentResult> assignCategories(@RequestBody @Valid CategoryAssignmentRequest request) {
+        log.info("Admin reclassifying {} books", request.getBookIds().size());
+        return ResponseEntity.ok(bookService.assignCategories(
+                request.getBookIds(), request.getAddCategoryIds(), request.getRemoveCategoryIds()));
+    }
     
     /**
      * Search books by title, author, or genre (public)
      */
     @GetMapping("/books/search")
-    public ResponseEntity<List<Book>> searchBooks(
+    public ResponseEntity<List<BookListItem>> searchBooks(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String genre) {
         log.debug("Searching books - title: {}, author: {}, genre: {}", title, author, genre);
-        List<Book> books = bookService.searchBooks(title, author, genre);
+        List<BookListItem> books = bookService.searchBooks(title, author, genre);
         return ResponseEntity.ok(books);
     }
     
+    /**
+     * Typo-tolerant title/author search with the applied spelling corrections (public)
+     */
+    @GetMapping("/books/search/fuzzy")
+    public ResponseEntity<FuzzySearchResponse> fuzzySearchBooks(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String genre,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.debug("Fuzzy search - title: {}, author: {}, genre: {}, limit: {}", title, author, genre, limit);
+        int boundedLimit = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(bookService.fuzzySearchBooks(title, author, genre, boundedLimit));
+    }
+    
+    /**
+     * Typeahead suggestions for the search box, served from memory (public)
+     */
+    @GetMapping("/books/suggest")
+    public ResponseEntity<List<BookSuggestion>> suggestBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Suggest - q: {}, limit: {}", q, limit);
+        return ResponseEntity.ok(bookService.suggestBooks(q, limit));
+    }
+    
+    /**
+     * Relevance-ranked full-text search served from the in-memory index (public)
+     */
+    @GetMapping("/books/search/ranked")
+    public ResponseEntity<List<BookListItem>> rankedSearchBooks(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String description,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.debug("Ranked search - q: {}, title: {}, author: {}, genre: {}, limit: {}", q, title, author, genre, limit);
+        int boundedLimit = Math.max(1, Math.min(limit, 100));
+        List<BookListItem> books = bookService.rankedSearchBooks(q, title, author, genre, description, boundedLimit);
+        return ResponseEntity.ok(books);
+    }
+
     /**
      * Advanced search with multiple filters (public)
      */
     @GetMapping("/books/advanced-search")
-    public ResponseEntity<List<Book>> advancedSearchBooks(
+    public ResponseEntity<List<BookListItem>> advancedSearchBooks(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String genre,
@@ -213,57 +394,120 @@ public class BookController {
             @RequestParam(required = false) Boolean available) {
         log.debug("Advanced search - title: {}, author: {}, genre: {}, minPrice: {}, maxPrice: {}",
                 title, author, genre, minPrice, maxPrice);
-        List<Book> books = bookService.advancedSearchBooks(
+        List<BookListItem> books = bookService.advancedSearchBooks(
                 title, author, genre, description, minPrice, maxPrice, minRating, available);
         return ResponseEntity.ok(books);
     }
     
+    /**
+     * Faceted search with facet counts for genre, language, publisher, price band,
+     * rating band and availability (public).
+     * Each facet parameter accepts several values (repeated or comma-separated).
+     */
+    @GetMapping("/books/faceted-search")
+    public ResponseEntity<FacetedSearchResponse> facetedSearchBooks(
+            @RequestParam(required = false) List<String> genre,
+            @RequestParam(required = false) List<String> language,
+            @RequestParam(required = false) List<String> publisher,
+            @RequestParam(required = false) List<String> priceBand,
+            @RequestParam(required = false) List<String> ratingBand,
+            @RequestParam(required = false) List<String> available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Faceted search - genre: {}, language: {}, publisher: {}, priceBand: {}, ratingBand: {}, available: {}",
+                genre, language, publisher, priceBand, ratingBand, available);
+        Map<BookFacetIndex.Facet, Set<String>> filters = new EnumMap<>(BookFacetIndex.Facet.class);
+        putFilter(filters, BookFacetIndex.Facet.GENRE, genre);
+        putFilter(filters, BookFacetIndex.Facet.LANGUAGE, language);
+        putFilter(filters, BookFacetIndex.Facet.PUBLISHER, publisher);
+        putFilter(filters, BookFacetIndex.Facet.PRICE_BAND, priceBand);
+        putFilter(filters, BookFacetIndex.Facet.RATING_BAND, ratingBand);
+        putFilter(filters, BookFacetIndex.Facet.AVAILABILITY, available);
+        return ResponseEntity.ok(bookService.facetedSearchBooks(filters, cursor, size));
+    }
+
     /**
      * Get books by category (public)
      */
     @GetMapping("/categories/{categoryId}/books")
-    public ResponseEntity<List<Book>> getBooksByCategory(@PathVariable Long categoryId) {
-        log.debug("Fetching books for category {}", categoryId);
-        List<Book> books = bookService.getBooksByCategory(categoryId);
-        return ResponseEntity.ok(books);
+    public ResponseEntity<Object> getBooksByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        log.debug("Fetching books for category {} - size: {}", categoryId, size);
+        FieldSelection selection = FieldSelection.parse(fields, BookListQueries.LIST_ITEM_FIELDS);
+        CursorPage<BookListItem> books = bookService.getBooksByCategory(categoryId, cursor, size, selection);
+        return pageResponse(books, selection, cursor, webRequest);
     }
     
     /**
      * Get all available books (public)
      */
     @GetMapping("/books/available")
-    public ResponseEntity<List<Book>> getAvailableBooks() {
-        log.debug("Fetching available books");
-        List<Book> books = bookService.getAvailableBooks();
-        return ResponseEntity.ok(books);
+    public ResponseEntity<Object> getAvailableBooks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        log.debug("Fetching available books - size: {}", size);
+        FieldSelection selection = FieldSelection.parse(fields, BookListQueries.LIST_ITEM_FIELDS);
+        CursorPage<BookListItem> books = bookService.getAvailableBooks(cursor, size, selection);
+        return pageResponse(books, selection, cursor, webRequest);
     }
     
     /**
      * Get top-rated books (public)
      */
     @GetMapping("/books/top-rated")
-    public ResponseEntity<List<Book>> getTopRatedBooks(
-            @RequestParam(required = false, defaultValue = "4.0") Double minRating) {
+    public ResponseEntity<Object> getTopRatedBooks(
+            @RequestParam(required = false, defaultValue = "4.0") Double minRating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         log.debug("Fetching top-rated books with min rating: {}", minRating);
-        List<Book> books = bookService.getTopRatedBooks(minRating);
-        return ResponseEntity.ok(books);
+        FieldSelection selection = FieldSelection.parse(fields, BookListQueries.LIST_ITEM_FIELDS);
+        CursorPage<BookListItem> books = bookService.getTopRatedBooks(minRating, cursor, size, selection);
+        return pageResponse(books, selection, cursor, webRequest);
+    }
+    
+    /**
+     * Get the K best rated books, overall or of a genre and/or category, from memory (public)
+     */
+    @GetMapping("/books/top")
+    public ResponseEntity<List<BookListItem>> getTopBooks(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "50") int k) {
+        log.debug("Fetching top {} books - genre: {}, category: {}", k, genre, categoryId);
+        int boundedK = Math.max(1, Math.min(k, 100));
+        return ResponseEntity.ok(bookService.getTopBooks(genre, categoryId, boundedK));
     }
     
     /**
      * Get books within price range (public)
      */
     @GetMapping("/books/price-range")
-    public ResponseEntity<List<Book>> getBooksByPriceRange(@RequestParam Double maxPrice) {
+    public ResponseEntity<Object> getBooksByPriceRange(
+            @RequestParam Double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         log.debug("Fetching books with max price: {}", maxPrice);
-        List<Book> books = bookService.getBooksByPriceRange(maxPrice);
-        return ResponseEntity.ok(books);
+        FieldSelection selection = FieldSelection.parse(fields, BookListQueries.LIST_ITEM_FIELDS);
+        CursorPage<BookListItem> books = bookService.getBooksByPriceRange(maxPrice, cursor, size, selection);
+        return pageResponse(books, selection, cursor, webRequest);
     }
     
     /**
      * Search books with pagination (public)
      */
     @GetMapping("/books/search/paged")
-    public ResponseEntity<Map<String, Object>> searchBooksWithPagination(
+    public ResponseEntity<Object> searchBooksWithPagination(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String genre,
@@ -272,21 +516,31 @@ public class BookController {
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) Double minRating,
             @RequestParam(required = false) Boolean available,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
-        log.debug("Paged search - page: {}, size: {}, sortBy: {}", page, size, sortBy);
-        Page<Book> books = bookService.searchBooksWithPagination(
-                title, author, genre, description, minPrice, maxPrice, minRating, available,
-                page, size, sortBy, direction);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("books", books.getContent());
-        response.put("currentPage", books.getNumber());
-        response.put("totalItems", books.getTotalElements());
-        response.put("totalPages", books.getTotalPages());
-
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        log.debug("Paged search - q: {}, size: {}, sortBy: {}, withTotal: {}", q, size, sortBy, withTotal);
+        FieldSelection selection = FieldSelection.parse(fields, BookListQueries.LIST_ITEM_FIELDS);
+        CursorPage<BookListItem> books = bookService.scrollBooks(
+                q, title, author, genre, description, minPrice, maxPrice, minRating, available,
+                cursor, size, sortBy, direction, selection);
+        if (!withTotal) {
+            return pageResponse(books, selection, cursor, webRequest);
+        }
+        // Pages never count; the total is cached per filter set and may be approximate.
+        // It is part of the body, so it is part of the validator too.
+        SearchCountCache.Count total = bookService.countBooks(
+                q, title, author, genre, description, minPrice, maxPrice, minRating, available);
+        if (bookService.getPageVersion(books, total.total(), total.approximate()).isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        Map<String, Object> response = toPageResponse(books, selection);
+        response.put("total", total.total());
+        response.put("totalApproximate", total.approximate());
         return ResponseEntity.ok(response);
     }
     
@@ -296,70 +550,82 @@ public class BookController {
      * Get all books with pagination (public)
      */
     @GetMapping("/books/paged")
-    public ResponseEntity<Map<String, Object>> getAllBooksWithPagination(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<Object> getAllBooksWithPagination(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
-        log.debug("Fetching all books paged - page: {}, size: {}", page, size);
-        Page<Book> books = bookService.searchBooksWithPagination(
-                null, null, null, null, null, null, null, null,
-                page, size, sortBy, direction);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("books", books.getContent());
-        response.put("currentPage", books.getNumber());
-        response.put("totalItems", books.getTotalElements());
-        response.put("totalPages", books.getTotalPages());
-        response.put("hasNext", books.hasNext());
-        response.put("hasPrevious", books.hasPrevious());
-
-        return ResponseEntity.ok(response);
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        log.debug("Fetching all books paged - size: {}, sortBy: {}", size, sortBy);
+        FieldSelection selection = FieldSelection.parse(fields, BookListQueries.LIST_ITEM_FIELDS);
+        CursorPage<BookListItem> books = bookService.scrollBooks(
+                null, null, null, null, null, null, null, null, null,
+                cursor, size, sortBy, direction, selection);
+        return pageResponse(books, selection, cursor, webRequest);
     }
     
     /**
      * Get books by author (public)
      */
     @GetMapping("/books/author")
-    public ResponseEntity<List<Book>> getBooksByAuthor(@RequestParam String author) {
+    public ResponseEntity<Object> getBooksByAuthor(
+            @RequestParam String author,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         log.debug("Fetching books by author: {}", author);
-        List<Book> books = bookService.searchBooks(null, author, null);
-        return ResponseEntity.ok(books);
+        FieldSelection selection = FieldSelection.parse(fields, BookListQueries.LIST_ITEM_FIELDS);
+        CursorPage<BookListItem> books = bookService.scrollBooks(
+                null, null, author, null, null, null, null, null, null,
+                cursor, size, "title", "asc", selection);
+        return pageResponse(books, selection, cursor, webRequest);
     }
     
     /**
      * Get books by genre (public)
      */
     @GetMapping("/books/genre")
-    public ResponseEntity<List<Book>> getBooksByGenre(@RequestParam String genre) {
+    public ResponseEntity<Object> getBooksByGenre(
+            @RequestParam String genre,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         log.debug("Fetching books by genre: {}", genre);
-        List<Book> books = bookService.searchBooks(null, null, genre);
-        return ResponseEntity.ok(books);
+        FieldSelection selection = FieldSelection.parse(fields, BookListQueries.LIST_ITEM_FIELDS);
+        CursorPage<BookListItem> books = bookService.scrollBooks(
+                null, null, null, genre, null, null, null, null, null,
+                cursor, size, "title", "asc", selection);
+        return pageResponse(books, selection, cursor, webRequest);
     }
     
     /**
      * Get book statistics (public)
      */
     @GetMapping("/books/stats")
-    public ResponseEntity<Map<String, Object>> getBookStatistics() {
-        log.debug("Calculating book statistics");
-        List<Book> allBooks = bookService.getAllBooks();
+    public ResponseEntity<CatalogStats> getBookStatistics() {
+        log.debug("Reading book statistics");
+        return ResponseEntity.ok(catalogStatistics.getStats());
+    }
+    
+    /**
+     * Get book cache metrics (Admin only)
+     */
+    @GetMapping("/books/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getBookCacheStatistics() {
+        log.debug("Reading book cache statistics");
+        CacheStats cacheStats = bookCache.stats();
         Map<String, Object> stats = new HashMap<>();
-
-        stats.put("totalBooks", allBooks.size());
-        stats.put("availableBooks", allBooks.stream().filter(Book::getAvailable).count());
-        stats.put("averagePrice", allBooks.stream().mapToDouble(Book::getPrice).average().orElse(0.0));
-        stats.put("averageRating", allBooks.stream().mapToDouble(Book::getAverageRating).average().orElse(0.0));
-
-        Map<String, Long> genreCount = new HashMap<>();
-        allBooks.forEach(book -> {
-            String genre = book.getGenre();
-            if (genre != null && !genre.trim().isEmpty()) {
-                genreCount.put(genre, genreCount.getOrDefault(genre, 0L) + 1);
-            }
-        });
-        stats.put("genreDistribution", genreCount);
-
+        stats.put("size", bookCache.size());
+        stats.put("hitCount", cacheStats.hitCount());
+        stats.put("missCount", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("evictionCount", cacheStats.evictionCount());
+        stats.put("loadFailureCount", cacheStats.loadFailureCount());
+        stats.put("averageLoadPenaltyMs", cacheStats.averageLoadPenalty() / 1_000_000.0);
         return ResponseEntity.ok(stats);
     }
     
@@ -368,29 +634,10 @@ public class BookController {
      */
     @PatchMapping("/books/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Book> partialUpdateBook(@PathVariable Long id, @RequestBody Map<String, Object> updates) {
+    public ResponseEntity<BookDetail> partialUpdateBook(@PathVariable Long id, @RequestBody Map<String, Object> updates) {
         log.info("Admin partially updating book with ID: {}", id);
-        Book existingBook = bookService.getBookById(id);
-
-        updates.forEach((key, value) -> {
-            switch (key.toLowerCase()) {
-                case "title" -> existingBook.setTitle((String) value);
-                case "author" -> existingBook.setAuthor((String) value);
-                case "description" -> existingBook.setDescription((String) value);
-                case "genre" -> existingBook.setGenre((String) value);
-                case "price" -> existingBook.setPrice(((Number) value).doubleValue());
-                case "available" -> existingBook.setAvailable((Boolean) value);
-                case "pages" -> existingBook.setPages(((Number) value).intValue());
-                case "language" -> existingBook.setLanguage((String) value);
-                case "publisher" -> existingBook.setPublisher((String) value);
-                case "publicationyear" -> existingBook.setPublicationYear(((Number) value).intValue());
-                case "coverimageurl" -> existingBook.setCoverImageUrl((String) value);
-                case "isbn" -> existingBook.setIsbn((String) value);
-            }
-        });
-
-        Book updatedBook = bookService.updateBook(id, existingBook);
-        return ResponseEntity.ok(updatedBook);
+        Book updatedBook = bookService.partialUpdateBook(id, updates);
+        return ResponseEntity.ok(BookMapper.toBookDetail(updatedBook));
     }
     
     /**
@@ -413,7 +660,108 @@ public class BookController {
     @GetMapping("/books/count")
     public ResponseEntity<Map<String, Object>> getBooksCount() {
         log.debug("Counting total books");
-        long count = bookService.getAllBooks().size();
+        long count = catalogStatistics.getTotalBooks();
         return ResponseEntity.ok(Map.of("count", count));
     }
+
+    private void putFilter(Map<BookFacetIndex.Facet, Set<String>> filters, BookFacetIndex.Facet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, new HashSet<>(values));
+        }
+    }
+
+    /**
+     * Answer a cursor-paginated list request, or 304 if the client's copy of the page is current.
+     * Full JSON first pages are served from the response body cache.
+     */
+    private ResponseEntity<Object> pageResponse(
+            CursorPage<BookListItem> page, FieldSelection selection, String cursor, WebRequest webRequest) {
+        ResourceVersion version = bookService.getPageVersion(page);
+        boolean cacheable = cursor == null && selection.isAll() && acceptsJson(webRequest);
+        if ((cacheable ? cachedJsonVersion(version, webRequest) : version).isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        if (cacheable) {
+            return cachedJson(firstPageKey(webRequest), version.getEtag(),
+                    () -> toPageResponse(page, selection), webRequest);
+        }
+        return ResponseEntity.ok(toPageResponse(page, selection));
+    }
+
+    /**
+     * Answer with the cached JSON bytes of a resource version, gzipped if the client accepts it
+     */
+    private ResponseEntity<Object> cachedJson(String key, String version, Supplier<Object> body, WebRequest webRequest) {
+        ResponseBodyCache.Body cached = responseBodyCache.get(key, version, body);
+        boolean gzip = cached.gzip() != null && acceptsGzip(webRequest);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .headers(headers -> {
+                    if (gzip) {
+                        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                })
+                .body(gzip ? cached.gzip() : cached.json());
+    }
+
+    /**
+     * Validators of the body cachedJson sends: a gzip body is a different byte sequence from the
+     * identity one, so it gets its own strong ETag
+     */
+    private ResourceVersion cachedJsonVersion(ResourceVersion version, WebRequest webRequest) {
+        return acceptsGzip(webRequest) ? version.withEncoding("gzip") : version;
+    }
+
+    /**
+     * Cache key of a list request: the path and the sorted query parameters
+     */
+    private String firstPageKey(WebRequest webRequest) {
+        StringBuilder key = new StringBuilder("page:").append(webRequest.getDescription(false));
+        new TreeMap<>(webRequest.getParameterMap()).forEach((name, values) ->
+                key.append('&').append(name).append('=').append(String.join(",", values)));
+        return key.toString();
+    }
+
+    /**
+     * True if the client did not ask for anything but JSON, i.e. would not negotiate CBOR or Smile
+     */
+    private boolean acceptsJson(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .allMatch(type -> type.isWildcardType() || type.isCompatibleWith(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Build the common response body for cursor-paginated book lists, trimmed to the selected fields
+     */
+    private Map<String, Object> toPageResponse(CursorPage<BookListItem> page, FieldSelection selection) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("books", page.getContent().stream().map(selection::project).toList());
+        response.put("size", page.getSize());
+        response.put("hasNext", page.isHasNext());
+        response.put("nextCursor", page.getNextCursor());
+        return response;
+    }
 }
@@ -1,5 +1,7 @@
 package com.bookmind.controller;
 
+import java.util.Optional;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -9,14 +11,18 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.bookmind.dto.AddToCartRequest;
+import com.bookmind.dto.BulkOperationResponse;
+import com.bookmind.dto.CartBatchRequest;
 import com.bookmind.dto.CartResponse;
 import com.bookmind.dto.CheckoutResponse;
 import com.bookmind.dto.RemoveFromCartRequest;
 import com.bookmind.dto.UpdateCartItemRequest;
 import com.bookmind.security.AuthenticatedUserProvider;
 import com.bookmind.service.CartService;
+import com.bookmind.utility.ResourceVersion;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -43,10 +49,15 @@ public class CartController {
      * @return the CartResponse DTO
      */
     @GetMapping
-    public ResponseEntity<CartResponse> getCart() {
+    public ResponseEntity<CartResponse> getCart(WebRequest webRequest) {
         Long userId = authProvider.getCurrentUserId();
         log.info("Fetching cart for authenticated user {}", userId);
 
+        Optional<ResourceVersion> version = cartService.getCartVersion(userId);
+        if (version.isPresent() && version.get().isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         CartResponse response = cartService.getCart(userId);
         return ResponseEntity.ok(response);
     }
@@ -96,6 +107,22 @@ public class CartController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Apply several add/update/remove operations to the authenticated user's cart at once
+     * 
+     * @param request contains the operations, applied in order
+     * @return detailed response about each operation
+     */
+    @PostMapping("/items:batch")
+    public ResponseEntity<BulkOperationResponse> applyCartOperations(@RequestBody @Valid CartBatchRequest request) {
+        Long userId = authProvider.getCurrentUserId();
+        log.info("Applying {} cart operations for authenticated user {}", request.getOperations().size(), userId);
+
+        BulkOperationResponse response = cartService.applyCartOperations(userId, request.getOperations());
+        HttpStatus status = response.getFailed() > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.OK;
+        return new ResponseEntity<>(response, status);
+    }
+
     /**
      * Clear all items from the authenticated user's cart
      * 
@@ -1,6 +1,7 @@
 package com.bookmind.controller;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.bookmind.dto.BulkAddBooksRequest;
 import com.bookmind.dto.BulkOperationResponse;
@@ -21,6 +23,7 @@ import com.bookmind.dto.SuccessResponse;
 import com.bookmind.dto.WishListResponse;
 import com.bookmind.security.AuthenticatedUserProvider;
 import com.bookmind.service.WishListService;
+import com.bookmind.utility.ResourceVersion;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
@@ -64,10 +67,16 @@ public class WishListController {
      */
     @GetMapping("/{wishListId}")
     public ResponseEntity<WishListResponse> getWishListById(
-            @PathVariable @Positive(message = "Wishlist ID must be positive") Long wishListId) {
+            @PathVariable @Positive(message = "Wishlist ID must be positive") Long wishListId,
+            WebRequest webRequest) {
         Long userId = authProvider.getCurrentUserId();
         log.info("Fetching wishlist {} for authenticated user {}", wishListId, userId);
 
+        Optional<ResourceVersion> version = wishListService.getWishListVersion(userId, wishListId);
+        if (version.isPresent() && version.get().isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         WishListResponse response = wishListService.getWishListById(userId, wishListId);
         return ResponseEntity.ok(response);
     }
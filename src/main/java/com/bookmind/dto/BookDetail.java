@@ -0,0 +1,52 @@
+package com.bookmind.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read model for a single book.
+ * The AI summary is served separately by /books/{id}/summary and reviews by /books/{id}/reviews.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookDetail {
+
+    private Long id;
+    private String title;
+    private String author;
+    private String description;
+    private String genre;
+    private String language;
+    private String publisher;
+    private int publicationYear;
+    private double price;
+    private Boolean available;
+    private int pages;
+    private double averageRating;
+    private String coverImageUrl;
+    private String isbn;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime summaryGeneratedAt;
+    // Optimistic lock version; send it back with a PATCH to reject the update if the book changed since
+    private long version;
+    private List<CategorySummaryDto> categories;
+
+    // Constructor used by the JPQL constructor expression (categories are loaded separately)
+    public BookDetail(Long id, String title, String author, String description, String genre,
+                      String language, String publisher, int publicationYear, double price,
+                      Boolean available, int pages, double averageRating, String coverImageUrl,
+                      String isbn, LocalDateTime createdAt, LocalDateTime updatedAt,
+                      LocalDateTime summaryGeneratedAt, long version) {
+        this(id, title, author, description, genre, language, publisher, publicationYear, price,
+                available, pages, averageRating, coverImageUrl, isbn, createdAt, updatedAt,
+                summaryGeneratedAt, version, List.of());
+    }
+}
@@ -0,0 +1,35 @@
+package com.bookmind.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat, unmanaged row for the catalog export feed.
+ * Produced directly by a JPQL constructor expression so that streaming the
+ * catalog never fills the persistence context with Book entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookExportRow {
+
+    private Long id;
+    private String isbn;
+    private String title;
+    private String author;
+    private String genre;
+    private String language;
+    private String publisher;
+    private int publicationYear;
+    private double price;
+    private Boolean available;
+    private int pages;
+    private double averageRating;
+    private String coverImageUrl;
+    private String description;
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,28 @@
+package com.bookmind.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to fetch many books by ID in one call, for ID lists too long for a query string.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookIdsRequest {
+
+    /** Maximum number of IDs per lookup, also applied to GET /books?ids= */
+    public static final int MAX_IDS = 1000;
+
+    @NotEmpty(message = "Book IDs list cannot be empty")
+    @Size(max = MAX_IDS, message = "Can fetch at most 1000 books at once")
+    private List<@NotNull(message = "Book ID cannot be null") Long> ids;
+}
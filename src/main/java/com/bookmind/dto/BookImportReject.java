@@ -0,0 +1,19 @@
+package com.bookmind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for an input row rejected by the bulk catalog import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportReject {
+    private long line;
+    private String isbn;
+    private String reason;
+}
@@ -0,0 +1,32 @@
+package com.bookmind.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO summarizing a bulk catalog import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResult {
+    private String format;
+    private long rowsRead;
+    private long rowsStaged;
+    private long rowsRejected;
+    // Staged rows superseded by a later row with the same ISBN
+    private long duplicateRows;
+    private long booksInserted;
+    private long booksUpdated;
+    private long categoriesCreated;
+    private long categoryLinksAdded;
+    private long durationMillis;
+    // The first rejected rows; rejectsTruncated is set when there were more
+    private List<BookImportReject> rejects;
+    private boolean rejectsTruncated;
+}
@@ -0,0 +1,33 @@
+package com.bookmind.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact read model for book lists.
+ * Carries no collections and none of the large text columns (description, aiSummary).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookListItem {
+
+    private Long id;
+    private String title;
+    private String author;
+    private String genre;
+    private String language;
+    private double price;
+    private Boolean available;
+    private double averageRating;
+    private int publicationYear;
+    private String coverImageUrl;
+    private String isbn;
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,24 @@
+package com.bookmind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Typeahead entry for the search box, served from memory by BookSuggestIndex.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestion {
+
+    private Long id;
+    private String title;
+    private String author;
+    private String isbn;
+    private double averageRating;
+    private int ratingCount;
+
+}
@@ -0,0 +1,28 @@
+package com.bookmind.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for applying several cart operations at once, in order.
+ * Note: userId is NOT included - it comes from the authenticated JWT token.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartBatchRequest {
+
+    @NotNull(message = "Operations list is required")
+    @NotEmpty(message = "Operations list cannot be empty")
+    @Size(max = 100, message = "Can apply at most 100 operations at once")
+    private List<@NotNull(message = "Operation cannot be null") @Valid CartOperation> operations;
+
+}
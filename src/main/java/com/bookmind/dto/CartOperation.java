@@ -0,0 +1,33 @@
+package com.bookmind.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One operation of a batch cart request.
+ * ADD increases the quantity (default 1), UPDATE sets it and REMOVE drops the book.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartOperation {
+
+    public enum Type {
+        ADD, UPDATE, REMOVE
+    }
+
+    @NotNull(message = "Operation type cannot be null")
+    private Type op;
+
+    @Positive(message = "Book ID must be positive")
+    @NotNull(message = "Book ID cannot be null")
+    private Long bookId;
+
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;  // Required for UPDATE, ignored for REMOVE
+
+}
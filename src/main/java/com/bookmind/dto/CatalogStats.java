@@ -0,0 +1,23 @@
+package com.bookmind.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the catalog-wide book statistics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStats {
+    private long totalBooks;
+    private long availableBooks;
+    private double averagePrice;
+    private double averageRating;
+    private Map<String, Long> genreDistribution;
+}
@@ -0,0 +1,33 @@
+package com.bookmind.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to reclassify many books at once: every listed category is added to
+ * or removed from every listed book.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryAssignmentRequest {
+
+    @NotEmpty(message = "Book IDs list cannot be empty")
+    @Size(max = 100000, message = "Can reclassify at most 100000 books at once")
+    private List<@NotNull(message = "Book ID cannot be null") @Positive(message = "Book ID must be positive") Long> bookIds;
+
+    @Size(max = 100, message = "Can add at most 100 categories at once")
+    private List<@NotNull(message = "Category ID cannot be null") Long> addCategoryIds;
+
+    @Size(max = 100, message = "Can remove at most 100 categories at once")
+    private List<@NotNull(message = "Category ID cannot be null") Long> removeCategoryIds;
+}
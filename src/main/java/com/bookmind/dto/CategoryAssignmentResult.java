@@ -0,0 +1,21 @@
+package com.bookmind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO summarizing a bulk category assignment
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryAssignmentResult {
+    private int booksRequested;
+    // Requested books that exist; missing IDs are ignored
+    private int booksFound;
+    private int linksAdded;
+    private int linksRemoved;
+}
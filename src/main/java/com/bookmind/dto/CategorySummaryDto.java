@@ -0,0 +1,16 @@
+package com.bookmind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for representing basic category information in book responses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySummaryDto {
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,33 @@
+package com.bookmind.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One slice of a keyset-paginated result.
+ * Pass nextCursor back as the cursor parameter to fetch the following slice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;  // null on the last slice
+
+    /**
+     * Convert the content while keeping the paging information.
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, size, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookmind.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a page of faceted search results with the facet counts over all matches
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResponse {
+    private List<BookListItem> books;
+    private long totalMatches;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    // facet name -> (facet value -> number of matching books)
+    private Map<String, Map<String, Long>> facets;
+}
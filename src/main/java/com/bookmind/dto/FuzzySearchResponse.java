@@ -0,0 +1,25 @@
+package com.bookmind.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for typo-tolerant search results with the spelling corrections that were applied
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FuzzySearchResponse {
+    private List<BookListItem> books;
+    // misspelled query term -> candidate corrections, best first (empty if none was found)
+    private Map<String, List<String>> corrections;
+    // The title and author queries the books were matched with, null if not given
+    private String correctedTitle;
+    private String correctedAuthor;
+}
@@ -0,0 +1,23 @@
+package com.bookmind.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the rating summary of a book, read from its stored rating aggregates
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummary {
+    private Long bookId;
+    private double averageRating;
+    private int ratingCount;
+    // Number of ratings per star value, 5 down to 1
+    private Map<Integer, Integer> histogram;
+}
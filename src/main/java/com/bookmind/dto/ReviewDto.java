@@ -0,0 +1,22 @@
+package com.bookmind.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for representing a review of a book (without the full user and book entities)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewDto {
+    private Long id;
+    private Long userId;
+    private String username;
+    private int rating;
+    private String comment;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.bookmind.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for changing the rating of a review.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateReviewRatingRequest {
+
+    @Min(value = 1, message = "Rating must be between 1 and 5")
+    @Max(value = 5, message = "Rating must be between 1 and 5")
+    @NotNull(message = "Rating cannot be null")
+    private Integer rating;
+
+}
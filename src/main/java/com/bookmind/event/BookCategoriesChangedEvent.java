@@ -0,0 +1,16 @@
+package com.bookmind.event;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Published by BookService when category links of books were added or removed.
+ *
+ * Categories are not part of BookSnapshot, so these changes publish no BookChangedEvent;
+ * read models that group books by category reload the links of the listed books instead.
+ */
+@Value
+public class BookCategoriesChangedEvent {
+    List<Long> bookIds;
+}
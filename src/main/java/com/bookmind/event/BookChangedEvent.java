@@ -0,0 +1,39 @@
+package com.bookmind.event;
+
+import lombok.Value;
+
+/**
+ * Published by BookService after a book has been created, updated or deleted.
+ *
+ * Listeners keep in-memory read models (search index, catalog statistics, ...) current.
+ * They should use @TransactionalEventListener(fallbackExecution = true) so that they only
+ * see committed changes when the write runs inside a transaction.
+ */
+@Value
+public class BookChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    Type type;
+    Long bookId;
+    // State before the change, null for CREATED
+    BookSnapshot before;
+    // State after the change, null for DELETED
+    BookSnapshot after;
+
+    public static BookChangedEvent created(BookSnapshot after) {
+        return new BookChangedEvent(Type.CREATED, after.getId(), null, after);
+    }
+
+    public static BookChangedEvent updated(BookSnapshot before, BookSnapshot after) {
+        return new BookChangedEvent(Type.UPDATED, after.getId(), before, after);
+    }
+
+    public static BookChangedEvent deleted(BookSnapshot before) {
+        return new BookChangedEvent(Type.DELETED, before.getId(), before, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bookmind.event;
+
+import com.bookmind.model.Book;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable copy of the scalar fields of a Book at a point in time.
+ * Listeners receive snapshots instead of the entity, so they never trigger lazy loading
+ * and can compare the state before and after a change.
+ */
+@Value
+@Builder
+public class BookSnapshot {
+
+    Long id;
+    String title;
+    String author;
+    String description;
+    String genre;
+    String language;
+    String publisher;
+    int publicationYear;
+    double price;
+    Boolean available;
+    int pages;
+    double averageRating;
+    int ratingCount;
+    String isbn;
+
+    /**
+     * Copy the scalar fields of a book.
+     *
+     * @param book the book to copy, may be null
+     * @return the snapshot, or null if the book is null
+     */
+    public static BookSnapshot of(Book book) {
+        if (book == null) {
+            return null;
+        }
+        return BookSnapshot.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .description(book.getDescription())
+                .genre(book.getGenre())
+                .language(book.getLanguage())
+                .publisher(book.getPublisher())
+                .publicationYear(book.getPublicationYear())
+                .price(book.getPrice())
+                .available(book.getAvailable())
+                .pages(book.getPages())
+                .averageRating(book.getAverageRating())
+                .ratingCount(book.getRatingCount())
+                .isbn(book.getIsbn())
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.bookmind.event;
+
+import lombok.Value;
+
+/**
+ * Published by BookImportService after a bulk catalog import.
+ *
+ * The import writes books with set-based SQL and publishes no per-book BookChangedEvents,
+ * so in-memory read models have to be rebuilt from the database when they receive this event.
+ */
+@Value
+public class CatalogImportedEvent {
+    long booksInserted;
+    long booksUpdated;
+}
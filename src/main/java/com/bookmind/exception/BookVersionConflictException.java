@@ -0,0 +1,9 @@
+package com.bookmind.exception;
+
+public class BookVersionConflictException extends RuntimeException {
+
+    public BookVersionConflictException(Long bookId, long expectedVersion, long currentVersion) {
+        super("Book with ID " + bookId + " was modified concurrently: expected version " + expectedVersion
+                + " but the current version is " + currentVersion + ". Reload the book and retry.");
+    }
+}
@@ -0,0 +1,11 @@
+package com.bookmind.exception;
+
+/**
+ * Exception thrown when a partial book update contains a value of the wrong type.
+ */
+public class InvalidBookUpdateException extends RuntimeException {
+
+    public InvalidBookUpdateException(String message) {
+        super(message);
+    }
+}
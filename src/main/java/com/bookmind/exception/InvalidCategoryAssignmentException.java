@@ -0,0 +1,11 @@
+package com.bookmind.exception;
+
+/**
+ * Exception thrown when a bulk category assignment both adds and removes the same Category.
+ */
+public class InvalidCategoryAssignmentException extends RuntimeException {
+
+    public InvalidCategoryAssignmentException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.bookmind.exception;
+
+/**
+ * Exception thrown when a pagination cursor cannot be decoded
+ * or does not belong to the requested sort order.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.bookmind.exception;
+
+/**
+ * Exception thrown when a fields= parameter names a field the response does not have.
+ */
+public class InvalidFieldSelectionException extends RuntimeException {
+
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
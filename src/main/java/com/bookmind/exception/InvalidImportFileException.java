@@ -0,0 +1,12 @@
+package com.bookmind.exception;
+
+/**
+ * Exception thrown when a bulk catalog import file cannot be processed as a whole,
+ * e.g. because required CSV header columns are missing.
+ */
+public class InvalidImportFileException extends RuntimeException {
+
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
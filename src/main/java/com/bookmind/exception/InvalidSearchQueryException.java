@@ -0,0 +1,12 @@
+package com.bookmind.exception;
+
+/**
+ * Exception thrown when a compact search query string cannot be parsed,
+ * e.g. because it names an unknown field or a malformed comparison.
+ */
+public class InvalidSearchQueryException extends RuntimeException {
+
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
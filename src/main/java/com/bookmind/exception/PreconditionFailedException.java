@@ -0,0 +1,12 @@
+package com.bookmind.exception;
+
+/**
+ * Exception thrown when a conditional request's If-Match header does not match the
+ * current version of the resource.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.bookmind.exception;
+
+/**
+ * Exception thrown when a catalog export or import is requested in a format
+ * that is not supported.
+ */
+public class UnsupportedFormatException extends RuntimeException {
+
+    public UnsupportedFormatException(String message) {
+        super(message);
+    }
+}
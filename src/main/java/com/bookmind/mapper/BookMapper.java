@@ -0,0 +1,135 @@
+package com.bookmind.mapper;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.bookmind.dto.BookDetail;
+import com.bookmind.dto.BookListItem;
+import com.bookmind.dto.CategorySummaryDto;
+import com.bookmind.dto.RatingSummary;
+import com.bookmind.model.Book;
+import com.bookmind.model.Category;
+
+/**
+ * Utility class for mapping Book entities to read-model DTOs.
+ * Used where an entity is already loaded (search results, write responses);
+ * plain reads are projected straight from the database instead.
+ */
+public class BookMapper {
+
+    /**
+     * Convert Book entity to BookListItem DTO
+     *
+     * @param book the book entity to convert
+     * @return a compact list item of the book
+     */
+    public static BookListItem toBookListItem(Book book) {
+        if (book == null) {
+            return null;
+        }
+
+        return new BookListItem(
+                book.getId(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getGenre(),
+                book.getLanguage(),
+                book.getPrice(),
+                book.getAvailable(),
+                book.getAverageRating(),
+                book.getPublicationYear(),
+                book.getCoverImageUrl(),
+                book.getIsbn(),
+                book.getUpdatedAt()
+        );
+    }
+
+    /**
+     * Convert Book entity to BookDetail DTO.
+     * Reads the categories collection, so call it inside a session or on a freshly saved book.
+     *
+     * @param book the book entity to convert
+     * @return a detail DTO of the book
+     */
+    public static BookDetail toBookDetail(Book book) {
+        if (book == null) {
+            return null;
+        }
+
+        List<CategorySummaryDto> categories = Optional.ofNullable(book.getCategories())
+                .orElse(Collections.emptySet())
+                .stream()
+                .filter(Objects::nonNull)
+                .map(BookMapper::toCategorySummary)
+                .sorted(Comparator.comparing(CategorySummaryDto::getName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toUnmodifiableList());
+
+        return new BookDetail(
+                book.getId(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getDescription(),
+                book.getGenre(),
+                book.getLanguage(),
+                book.getPublisher(),
+                book.getPublicationYear(),
+                book.getPrice(),
+                book.getAvailable(),
+                book.getPages(),
+                book.getAverageRating(),
+                book.getCoverImageUrl(),
+                book.getIsbn(),
+                book.getCreatedAt(),
+                book.getUpdatedAt(),
+                book.getSummaryGeneratedAt(),
+                book.getVersion(),
+                categories
+        );
+    }
+
+    /**
+     * Convert Category entity to CategorySummaryDto
+     *
+     * @param category the category entity to convert
+     * @return a summary DTO of the category
+     */
+    public static CategorySummaryDto toCategorySummary(Category category) {
+        if (category == null) {
+            return null;
+        }
+
+        return new CategorySummaryDto(category.getId(), category.getName());
+    }
+
+    /**
+     * Convert the rating aggregates of a Book entity to a RatingSummary DTO
+     *
+     * @param book the book entity to convert
+     * @return the rating summary of the book
+     */
+    public static RatingSummary toRatingSummary(Book book) {
+        if (book == null) {
+            return null;
+        }
+
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        histogram.put(5, book.getRatingCount5());
+        histogram.put(4, book.getRatingCount4());
+        histogram.put(3, book.getRatingCount3());
+        histogram.put(2, book.getRatingCount2());
+        histogram.put(1, book.getRatingCount1());
+
+        return RatingSummary.builder()
+                .bookId(book.getId())
+                .averageRating(book.getAverageRating())
+                .ratingCount(book.getRatingCount())
+                .histogram(histogram)
+                .build();
+    }
+}
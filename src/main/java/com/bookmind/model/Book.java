@@ -2,20 +2,26 @@ package com.bookmind.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 import java.util.*;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 
-@Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@Data
 @Entity
 @Table(name = "books")
+@DynamicUpdate // UPDATEs set only the changed columns
 public class Book {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
     private String title;
     private String author;
@@ -36,12 +42,43 @@ public class Book {
     private Boolean available;
     private int pages;
     private double averageRating;
+
+    // Rating aggregates, maintained with atomic SQL increments (BookRepository.adjustRatingAggregates)
+    // so rating changes never load the reviews; ratingCountN is the number of N-star ratings
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    private long ratingSum;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    private int ratingCount;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    private int ratingCount1;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    private int ratingCount2;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    private int ratingCount3;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    private int ratingCount4;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    private int ratingCount5;
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Review> reviews = new ArrayList<>();
     private String coverImageUrl;
     private String isbn;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Optimistic lock: every UPDATE checks and increments it, so concurrent edits fail instead of
+    // overwriting each other; existing rows start at 0
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    private long version;
     
     // AI-generated summary fields
     @Column(length = 4000)
@@ -62,6 +99,21 @@ public class Book {
         }
     }
 
+    /**
+     * Copy the average rating and the rating aggregates of another book; they are derived
+     * from the reviews and never taken from update requests.
+     */
+    public void copyRatingsFrom(Book other) {
+        averageRating = other.averageRating;
+        ratingSum = other.ratingSum;
+        ratingCount = other.ratingCount;
+        ratingCount1 = other.ratingCount1;
+        ratingCount2 = other.ratingCount2;
+        ratingCount3 = other.ratingCount3;
+        ratingCount4 = other.ratingCount4;
+        ratingCount5 = other.ratingCount5;
+    }
+
     public void addReview(Review review) {
         if(review != null){
             reviews.add(review);
@@ -11,7 +11,8 @@ import jakarta.persistence.PreUpdate;
 public class UserBookCollection implements BookCollection {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "whishlists_seq")
+    @SequenceGenerator(name = "whishlists_seq", sequenceName = "whishlists_seq", allocationSize = 50)
     protected Long id;
 
     @ManyToMany
@@ -29,13 +30,14 @@ public class UserBookCollection implements BookCollection {
     public void addBook(Book book) {
         if (book != null && !books.contains(book)) {
             books.add(book);
+            this.updatedAt = LocalDateTime.now(); // collection changes alone do not trigger @PreUpdate
         }
     }
 
     @Override
     public void removeBook(Book book) {
-        if (book != null) {
-            books.remove(book);
+        if (book != null && books.remove(book)) {
+            this.updatedAt = LocalDateTime.now(); // collection changes alone do not trigger @PreUpdate
         }
     }
 
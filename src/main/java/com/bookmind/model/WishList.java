@@ -12,7 +12,8 @@ import lombok.*;
 public class WishList extends UserBookCollection{
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "whishlists_seq")
+    @SequenceGenerator(name = "whishlists_seq", sequenceName = "whishlists_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
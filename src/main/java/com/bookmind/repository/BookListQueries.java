@@ -0,0 +1,56 @@
+package com.bookmind.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.bookmind.dto.BookDetail;
+import com.bookmind.dto.BookListItem;
+import com.bookmind.model.Book;
+
+/**
+ * Custom repository fragment for keyset-paginated book lists and field-selected book reads.
+ * Only the BookListItem columns (plus the sort keys) are selected, so list pages never
+ * load the large text columns or touch the lazy collections of the Book entity. With a
+ * sparse fieldset the selection is narrowed further to the requested columns.
+ */
+public interface BookListQueries {
+
+    // BookListItem properties, which are also the columns a list page may select
+    List<String> LIST_ITEM_FIELDS = List.of(
+        "id", "title", "author", "genre", "language", "price", "available",
+        "averageRating", "publicationYear", "coverImageUrl", "isbn", "updatedAt");
+
+    // Scalar BookDetail properties, which are also the columns a detail read may select
+    List<String> DETAIL_FIELDS = List.of(
+        "id", "title", "author", "description", "genre", "language", "publisher",
+        "publicationYear", "price", "available", "pages", "averageRating",
+        "coverImageUrl", "isbn", "createdAt", "updatedAt", "summaryGeneratedAt", "version");
+
+    // Keyset page of list items matching the specification; the sort must end with the unique `id`
+    Window<BookListItem> scrollListItems(
+        Specification<Book> specification,
+        Sort sort,
+        KeysetScrollPosition position,
+        int limit
+    );
+
+    // Same, reading only the given LIST_ITEM_FIELDS columns (plus id, updatedAt and the sort keys);
+    // the other properties of the returned items are null or zero
+    Window<BookListItem> scrollListItems(
+        Specification<Book> specification,
+        Sort sort,
+        KeysetScrollPosition position,
+        int limit,
+        Set<String> columns
+    );
+
+    // Detail projection of a single book reading only the given DETAIL_FIELDS columns;
+    // categories are left empty
+    Optional<BookDetail> findDetailFieldsById(Long id, Set<String> columns);
+}
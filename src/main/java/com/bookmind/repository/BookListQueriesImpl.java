@@ -0,0 +1,220 @@
+package com.bookmind.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.bookmind.dto.BookDetail;
+import com.bookmind.dto.BookListItem;
+import com.bookmind.model.Book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Criteria implementation of {@link BookListQueries}.
+ *
+ * The seek predicate follows PostgreSQL's default null ordering
+ * (NULLS LAST for ascending, NULLS FIRST for descending columns).
+ */
+public class BookListQueriesImpl implements BookListQueries {
+
+    // Read even when not selected: the ID and timestamp make up page ETags and the ID ends every keyset sort
+    private static final Set<String> REQUIRED_LIST_COLUMNS = Set.of("id", "updatedAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<BookListItem> scrollListItems(
+            Specification<Book> specification, Sort sort, KeysetScrollPosition position, int limit) {
+        return scrollListItems(specification, sort, position, limit, new LinkedHashSet<>(LIST_ITEM_FIELDS));
+    }
+
+    @Override
+    public Window<BookListItem> scrollListItems(
+            Specification<Book> specification, Sort sort, KeysetScrollPosition position, int limit,
+            Set<String> selectedColumns) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        Set<String> columns = new LinkedHashSet<>(selectedColumns);
+        columns.addAll(REQUIRED_LIST_COLUMNS);
+        sort.forEach(order -> columns.add(order.getProperty()));
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            selections.add(root.get(column).alias(column));
+        }
+        query.multiselect(selections);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (position != null && !position.isInitial()) {
+            predicates.add(seekPredicate(cb, root, sort, position.getKeys()));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = root.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.orderBy(orders);
+
+        // Fetch one extra row to find out whether there is a next page
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<BookListItem> items = new ArrayList<>(rows.size());
+        List<Map<String, Object>> keys = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            items.add(toListItem(row, columns));
+            Map<String, Object> rowKeys = new LinkedHashMap<>();
+            sort.forEach(order -> rowKeys.put(order.getProperty(), row.get(order.getProperty())));
+            keys.add(rowKeys);
+        }
+        return Window.from(items, index -> ScrollPosition.forward(keys.get(index)), hasNext);
+    }
+
+    /**
+     * Rows strictly after the given keys: (a > :a) OR (a = :a AND b > :b) OR ...
+     */
+    private Predicate seekPredicate(CriteriaBuilder cb, Root<Book> root, Sort sort, Map<String, ?> keys) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = root.get(order.getProperty());
+            Object value = keys.get(order.getProperty());
+
+            List<Predicate> alternative = new ArrayList<>(equalPrefix);
+            alternative.add(after(cb, path, value, order.isAscending()));
+            alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+
+            equalPrefix.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate after(CriteriaBuilder cb, Path<?> path, Object value, boolean ascending) {
+        Expression<Comparable> expression = (Expression<Comparable>) path;
+        if (ascending) {
+            // Nulls sort last: after a null there is nothing, after a value come greater values and nulls
+            return value == null
+                    ? cb.disjunction()
+                    : cb.or(cb.greaterThan(expression, (Comparable) value), cb.isNull(path));
+        }
+        // Nulls sort first: after a null come all values, after a value come smaller values
+        return value == null
+                ? cb.isNotNull(path)
+                : cb.lessThan(expression, (Comparable) value);
+    }
+
+    @Override
+    public Optional<BookDetail> findDetailFieldsById(Long id, Set<String> selectedColumns) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        Set<String> columns = new LinkedHashSet<>(selectedColumns);
+        columns.add("id");
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            selections.add(root.get(column).alias(column));
+        }
+        query.multiselect(selections);
+        query.where(cb.equal(root.get("id"), id));
+
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Tuple row = rows.get(0);
+        return Optional.of(new BookDetail(
+                value(row, columns, "id", Long.class),
+                value(row, columns, "title", String.class),
+                value(row, columns, "author", String.class),
+                value(row, columns, "description", String.class),
+                value(row, columns, "genre", String.class),
+                value(row, columns, "language", String.class),
+                value(row, columns, "publisher", String.class),
+                intValue(row, columns, "publicationYear"),
+                doubleValue(row, columns, "price"),
+                value(row, columns, "available", Boolean.class),
+                intValue(row, columns, "pages"),
+                doubleValue(row, columns, "averageRating"),
+                value(row, columns, "coverImageUrl", String.class),
+                value(row, columns, "isbn", String.class),
+                value(row, columns, "createdAt", LocalDateTime.class),
+                value(row, columns, "updatedAt", LocalDateTime.class),
+                value(row, columns, "summaryGeneratedAt", LocalDateTime.class),
+                longValue(row, columns, "version")));
+    }
+
+    private static BookListItem toListItem(Tuple row, Set<String> columns) {
+        return new BookListItem(
+                value(row, columns, "id", Long.class),
+                value(row, columns, "title", String.class),
+                value(row, columns, "author", String.class),
+                value(row, columns, "genre", String.class),
+                value(row, columns, "language", String.class),
+                doubleValue(row, columns, "price"),
+                value(row, columns, "available", Boolean.class),
+                doubleValue(row, columns, "averageRating"),
+                intValue(row, columns, "publicationYear"),
+                value(row, columns, "coverImageUrl", String.class),
+                value(row, columns, "isbn", String.class),
+                value(row, columns, "updatedAt", LocalDateTime.class));
+    }
+
+    // Columns that were not selected read as null (or zero for primitive properties)
+    private static <T> T value(Tuple row, Set<String> columns, String column, Class<T> type) {
+        return columns.contains(column) ? row.get(column, type) : null;
+    }
+
+    private static double doubleValue(Tuple row, Set<String> columns, String column) {
+        Double value = value(row, columns, column, Double.class);
+        return value != null ? value : 0;
+    }
+
+    private static long longValue(Tuple row, Set<String> columns, String column) {
+        Long value = value(row, columns, column, Long.class);
+        return value != null ? value : 0;
+    }
+
+    private static int intValue(Tuple row, Set<String> columns, String column) {
+        Integer value = value(row, columns, column, Integer.class);
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.bookmind.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.bookmind.exception.InvalidSearchQueryException;
+import com.bookmind.model.Book;
+
+/**
+ * Parser for compact search strings such as {@code author:le guin price:<20 rating:>=4}.
+ *
+ * A query is a sequence of {@code field:value} clauses; a value runs until the next clause and
+ * may be quoted. Words before the first clause search the title. A colon inside quotes, or after
+ * a word that is not a field name and is followed by a space ({@code Star Wars: A New Hope}),
+ * is part of the value rather than the start of a clause. Every clause becomes one
+ * Specification from BookSpecifications and the clauses are combined with AND, so the SQL
+ * only contains the predicates that were actually written.
+ *
+ * Text fields (title, author, genre, description) match substrings case-insensitively,
+ * isbn matches exactly, numeric fields (price, rating, year, pages) accept {@code <, <=, >, >=, =}
+ * or a range {@code a..b}, and available accepts true or false.
+ */
+public final class BookQueryParser {
+
+    private static final Pattern CLAUSE_START = Pattern.compile("([A-Za-z]+):");
+    private static final Pattern COMPARISON = Pattern.compile("(<=|>=|<|>|=)?\\s*(-?\\d+(?:\\.\\d+)?)");
+    private static final Pattern RANGE = Pattern.compile("(-?\\d+(?:\\.\\d+)?)\\.\\.(-?\\d+(?:\\.\\d+)?)");
+
+    // query field -> entity attribute
+    private static final Map<String, String> TEXT_FIELDS = Map.of(
+            "title", "title",
+            "author", "author",
+            "genre", "genre",
+            "description", "description");
+    private static final Map<String, String> DECIMAL_FIELDS = Map.of(
+            "price", "price",
+            "rating", "averageRating");
+    private static final Map<String, String> INTEGER_FIELDS = Map.of(
+            "year", "publicationYear",
+            "pages", "pages");
+    private static final Set<String> OTHER_FIELDS = Set.of("isbn", "available");
+
+    /**
+     * A field and its unquoted value, as written in the query.
+     */
+    record Clause(String field, String value) {
+    }
+
+    private BookQueryParser() {
+    }
+
+    /**
+     * Parse a compact query string.
+     *
+     * @param query the query, may be null or blank
+     * @return the conjunction of the clauses; matches every book if the query is empty
+     * @throws InvalidSearchQueryException if a field is unknown or a value is malformed
+     */
+    public static Specification<Book> parse(String query) {
+        List<Specification<Book>> specs = new ArrayList<>();
+        for (Clause clause : split(query)) {
+            specs.add(toSpecification(clause));
+        }
+        return Specification.allOf(specs);
+    }
+
+    /**
+     * Canonical form of a query: two queries with the same canonical form match the same books.
+     * Values of the case-insensitive fields are lowercased; isbn and numeric values are kept as written.
+     *
+     * @param query the query, may be null or blank
+     * @return the clauses in query order, one field=value per line; empty if the query is empty
+     * @throws InvalidSearchQueryException if a clause has no value
+     */
+    public static String canonicalize(String query) {
+        StringBuilder canonical = new StringBuilder();
+        for (Clause clause : split(query)) {
+            String value = TEXT_FIELDS.containsKey(clause.field()) || "available".equals(clause.field())
+                    ? clause.value().toLowerCase(Locale.ROOT)
+                    : clause.value();
+            canonical.append(clause.field()).append('=').append(value).append('\n');
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * Split a query string into its clauses, without checking the fields or values.
+     *
+     * @param query the query, may be null or blank
+     * @return the clauses in query order; leading words form a title clause
+     * @throws InvalidSearchQueryException if a clause has no value
+     */
+    static List<Clause> split(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return clauses;
+        }
+
+        Matcher matcher = CLAUSE_START.matcher(query);
+        String field = "title";
+        int valueStart = 0;
+        boolean quoted = false;
+        for (int i = 0; i < query.length(); i++) {
+            if (query.charAt(i) == '"') {
+                quoted = !quoted;
+            } else if (!quoted
+                    && (i == 0 || Character.isWhitespace(query.charAt(i - 1)))
+                    && matcher.region(i, query.length()).lookingAt()
+                    && isClauseStart(matcher.group(1), query, matcher.end())) {
+                addClause(clauses, field, query.substring(valueStart, i), valueStart > 0);
+                field = matcher.group(1).toLowerCase(Locale.ROOT);
+                valueStart = matcher.end();
+                i = valueStart - 1;
+            }
+        }
+        addClause(clauses, field, query.substring(valueStart), true);
+        return clauses;
+    }
+
+    // An unknown word only starts a clause when a value follows the colon directly, so that
+    // "auther:le guin" is reported as a typo while "Star Wars: A New Hope" stays text
+    private static boolean isClauseStart(String name, String query, int valueStart) {
+        String field = name.toLowerCase(Locale.ROOT);
+        boolean known = TEXT_FIELDS.containsKey(field) || DECIMAL_FIELDS.containsKey(field)
+                || INTEGER_FIELDS.containsKey(field) || OTHER_FIELDS.contains(field);
+        return known || (valueStart < query.length() && !Character.isWhitespace(query.charAt(valueStart)));
+    }
+
+    private static void addClause(List<Clause> clauses, String field, String rawValue, boolean required) {
+        String value = unquote(rawValue.trim());
+        if (value.isEmpty()) {
+            if (required) {
+                throw new InvalidSearchQueryException("Missing value for search field '" + field + "'");
+            }
+            return;
+        }
+        clauses.add(new Clause(field, value));
+    }
+
+    private static Specification<Book> toSpecification(Clause clause) {
+        String field = clause.field();
+        String value = clause.value();
+        if (TEXT_FIELDS.containsKey(field)) {
+            return BookSpecifications.containsIgnoreCase(TEXT_FIELDS.get(field), value);
+        } else if (DECIMAL_FIELDS.containsKey(field)) {
+            return numeric(DECIMAL_FIELDS.get(field), field, value, Double::valueOf);
+        } else if (INTEGER_FIELDS.containsKey(field)) {
+            return numeric(INTEGER_FIELDS.get(field), field, value, BookQueryParser::parseInteger);
+        } else if ("isbn".equals(field)) {
+            return BookSpecifications.isbnIs(value);
+        } else if ("available".equals(field)) {
+            if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                throw new InvalidSearchQueryException("Search field 'available' must be true or false, got '" + value + "'");
+            }
+            return BookSpecifications.availableIs(Boolean.parseBoolean(value));
+        }
+        throw new InvalidSearchQueryException("Unknown search field '" + field + "'. Valid fields are: "
+                + "title, author, genre, description, isbn, price, rating, year, pages, available");
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Book> numeric(
+            String attribute, String field, String value, Function<String, T> parser) {
+        Matcher range = RANGE.matcher(value);
+        if (range.matches()) {
+            return BookSpecifications.compare(attribute, ">=", parser.apply(range.group(1)))
+                    .and(BookSpecifications.compare(attribute, "<=", parser.apply(range.group(2))));
+        }
+        Matcher comparison = COMPARISON.matcher(value);
+        if (comparison.matches()) {
+            String operator = comparison.group(1) == null ? "=" : comparison.group(1);
+            return BookSpecifications.compare(attribute, operator, parser.apply(comparison.group(2)));
+        }
+        throw new InvalidSearchQueryException("Search field '" + field
+                + "' expects a number with an optional <, <=, >, >=, = or a range a..b, got '" + value + "'");
+    }
+
+    private static Integer parseInteger(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidSearchQueryException("Expected a whole number, got '" + value + "'");
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).trim();
+        }
+        return value;
+    }
+}
@@ -1,105 +1,240 @@
 package com.bookmind.repository;
 
+import com.bookmind.dto.BookDetail;
+import com.bookmind.dto.BookExportRow;
+import com.bookmind.dto.BookListItem;
+import com.bookmind.dto.CategorySummaryDto;
 import com.bookmind.model.Book;
-import com.bookmind.model.Category;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
-
-    // Find books by title (case-insensitive)
-    List<Book> findByTitleContainingIgnoreCase(String title);
-    
-    // Find books by author (case-insensitive)
-    List<Book> findByAuthorContainingIgnoreCase(String author);
-    
-    // Find books by genre (case-insensitive)
-    List<Book> findByGenreContainingIgnoreCase(String genre);
-    
-    // Find books with price less than or equal to the specified amount
-    List<Book> findByPriceLessThanEqual(double price);
-    
-    // Find books by publication year
-    List<Book> findByPublicationYear(int year);
-    
-    // Find books that are available
-    List<Book> findByAvailableTrue();
-    
-    // Find books with average rating greater than or equal to the specified value
-    List<Book> findByAverageRatingGreaterThanEqual(double rating);
-    
-    // Find books belonging to a specific category
-    @Query("SELECT b FROM Book b JOIN b.categories c WHERE c = :category")
-    List<Book> findByCategory(@Param("category") Category category);
-    
-    // Advanced search with multiple criteria
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookTrigramSearch, BookListQueries {
+
+    // Compact list projection of the whole catalog
+    @Query("""
+        SELECT new com.bookmind.dto.BookListItem(
+            b.id, b.title, b.author, b.genre, b.language, b.price, b.available,
+            b.averageRating, b.publicationYear, b.coverImageUrl, b.isbn, b.updatedAt)
+        FROM Book b
+        ORDER BY b.id
+    """)
+    List<BookListItem> findAllListItems();
+
+    // Compact list projection of the given books (in no particular order)
+    @Query("""
+        SELECT new com.bookmind.dto.BookListItem(
+            b.id, b.title, b.author, b.genre, b.language, b.price, b.available,
+            b.averageRating, b.publicationYear, b.coverImageUrl, b.isbn, b.updatedAt)
+        FROM Book b
+        WHERE b.id IN :ids
+    """)
+    List<BookListItem> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Scalar detail projection of a single book (categories are loaded with findCategorySummaries)
+    @Query("""
+        SELECT new com.bookmind.dto.BookDetail(
+            b.id, b.title, b.author, b.description, b.genre, b.language, b.publisher,
+            b.publicationYear, b.price, b.available, b.pages, b.averageRating,
+            b.coverImageUrl, b.isbn, b.createdAt, b.updatedAt, b.summaryGeneratedAt, b.version)
+        FROM Book b
+        WHERE b.id = :id
+    """)
+    Optional<BookDetail> findDetailById(@Param("id") Long id);
+
+    // Last modification time of a book, used as its version for conditional GETs
+    @Query("SELECT b.updatedAt FROM Book b WHERE b.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Categories of a book, without loading the Category entities and their book sets
+    @Query("""
+        SELECT new com.bookmind.dto.CategorySummaryDto(c.id, c.name)
+        FROM Book b JOIN b.categories c
+        WHERE b.id = :bookId
+        ORDER BY c.name
+    """)
+    List<CategorySummaryDto> findCategorySummaries(@Param("bookId") Long bookId);
+
+    // IDs of the given books that exist
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Link every given book to every given category in one statement; existing links are skipped
+    @Modifying
     @Query(value = """
-        SELECT DISTINCT * 
-        FROM books b
-        WHERE (:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')))
-        AND (:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))
-        AND (:genre IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', :genre, '%')))
-        AND (:description IS NULL OR LOWER(b.description) LIKE LOWER(CONCAT('%', :description, '%')))
-        AND (:minPrice IS NULL OR b.price >= :minPrice)
-        AND (:maxPrice IS NULL OR b.price <= :maxPrice)
-        AND (:minRating IS NULL OR b.average_rating >= :minRating)
-        AND (:available IS NULL OR b.available = :available)
+        INSERT INTO book_categories (book_id, category_id)
+        SELECT b.id, c.id
+        FROM books b CROSS JOIN categories c
+        WHERE b.id IN (:bookIds) AND c.id IN (:categoryIds)
+        AND NOT EXISTS (
+            SELECT 1 FROM book_categories bc WHERE bc.book_id = b.id AND bc.category_id = c.id
+        )
+        ON CONFLICT DO NOTHING
     """, nativeQuery = true)
-    List<Book> searchBooks(
-        @Param("title") String title,
-        @Param("author") String author,
-        @Param("genre") String genre,
-        @Param("description") String description,
-        @Param("minPrice") Double minPrice,
-        @Param("maxPrice") Double maxPrice,
-        @Param("minRating") Double minRating,
-        @Param("available") Boolean available
-    );
+    int insertCategoryLinks(@Param("bookIds") Collection<Long> bookIds, @Param("categoryIds") Collection<Long> categoryIds);
 
-    // Pageable versions of the search methods
-    Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
-    Page<Book> findByAuthorContainingIgnoreCase(String author, Pageable pageable);
-    Page<Book> findByGenreContainingIgnoreCase(String genre, Pageable pageable);
-    Page<Book> findByPriceLessThanEqual(double price, Pageable pageable);
-    Page<Book> findByAvailableTrue(Pageable pageable);
-    Page<Book> findByAverageRatingGreaterThanEqual(double rating, Pageable pageable);
-    
-    @Query("SELECT b FROM Book b JOIN b.categories c WHERE c = :category")
-    Page<Book> findByCategory(@Param("category") Category category, Pageable pageable);
-    
-    @Query(value = "SELECT DISTINCT * FROM books b " +
-           "WHERE (:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-           "AND (:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))) " +
-           "AND (:genre IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', :genre, '%'))) " +
-           "AND (:description IS NULL OR LOWER(b.description) LIKE LOWER(CONCAT('%', :description, '%'))) " +
-           "AND (:minPrice IS NULL OR b.price >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR b.price <= :maxPrice) " +
-           "AND (:minRating IS NULL OR b.average_rating >= :minRating) " +
-           "AND (:available IS NULL OR b.available = :available)",
-           countQuery = "SELECT count(DISTINCT b.id) FROM books b " +
-           "WHERE (:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-           "AND (:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))) " +
-           "AND (:genre IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', :genre, '%'))) " +
-           "AND (:description IS NULL OR LOWER(b.description) LIKE LOWER(CONCAT('%', :description, '%'))) " +
-           "AND (:minPrice IS NULL OR b.price >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR b.price <= :maxPrice) " +
-           "AND (:minRating IS NULL OR b.average_rating >= :minRating) " +
-           "AND (:available IS NULL OR b.available = :available)",
+    // Unlink the given categories from the given books in one statement
+    @Modifying
+    @Query(value = "DELETE FROM book_categories WHERE book_id IN (:bookIds) AND category_id IN (:categoryIds)",
            nativeQuery = true)
-    Page<Book> searchBooksWithPagination(
-        @Param("title") String title,
-        @Param("author") String author,
-        @Param("genre") String genre,
-        @Param("description") String description,
-        @Param("minPrice") Double minPrice,
-        @Param("maxPrice") Double maxPrice,
-        @Param("minRating") Double minRating,
-        @Param("available") Boolean available,
-        Pageable pageable
+    int deleteCategoryLinks(@Param("bookIds") Collection<Long> bookIds, @Param("categoryIds") Collection<Long> categoryIds);
+
+    // Unlink every category from the given books in one statement
+    @Modifying
+    @Query(value = "DELETE FROM book_categories WHERE book_id IN (:bookIds)", nativeQuery = true)
+    int deleteAllCategoryLinks(@Param("bookIds") Collection<Long> bookIds);
+
+    // Bump the modification time of books changed by bulk statements (their ETag depends on it)
+    @Modifying
+    @Query("UPDATE Book b SET b.updatedAt = :updatedAt WHERE b.id IN :ids")
+    int touchUpdatedAt(@Param("ids") Collection<Long> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Atomically move one rating out of (removed) and/or into (added) the rating aggregates of a book;
+    // 0 means no rating. The average is derived from the new sum and count in the same statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE books SET
+            rating_sum = rating_sum - :removed + :added,
+            rating_count = rating_count - CASE WHEN :removed > 0 THEN 1 ELSE 0 END + CASE WHEN :added > 0 THEN 1 ELSE 0 END,
+            rating_count1 = rating_count1 - CASE WHEN :removed = 1 THEN 1 ELSE 0 END + CASE WHEN :added = 1 THEN 1 ELSE 0 END,
+            rating_count2 = rating_count2 - CASE WHEN :removed = 2 THEN 1 ELSE 0 END + CASE WHEN :added = 2 THEN 1 ELSE 0 END,
+            rating_count3 = rating_count3 - CASE WHEN :removed = 3 THEN 1 ELSE 0 END + CASE WHEN :added = 3 THEN 1 ELSE 0 END,
+            rating_count4 = rating_count4 - CASE WHEN :removed = 4 THEN 1 ELSE 0 END + CASE WHEN :added = 4 THEN 1 ELSE 0 END,
+            rating_count5 = rating_count5 - CASE WHEN :removed = 5 THEN 1 ELSE 0 END + CASE WHEN :added = 5 THEN 1 ELSE 0 END,
+            average_rating = CASE
+                WHEN rating_count - CASE WHEN :removed > 0 THEN 1 ELSE 0 END + CASE WHEN :added > 0 THEN 1 ELSE 0 END > 0
+                THEN CAST(rating_sum - :removed + :added AS double precision)
+                     / (rating_count - CASE WHEN :removed > 0 THEN 1 ELSE 0 END + CASE WHEN :added > 0 THEN 1 ELSE 0 END)
+                ELSE 0 END,
+            updated_at = :updatedAt
+        WHERE id = :bookId
+    """, nativeQuery = true)
+    int adjustRatingAggregates(
+        @Param("bookId") Long bookId,
+        @Param("removed") int removedRating,
+        @Param("added") int addedRating,
+        @Param("updatedAt") LocalDateTime updatedAt
     );
+
+    // IDs of books whose stored rating aggregates do not match their reviews
+    @Query(value = """
+        SELECT b.id
+        FROM books b
+        LEFT JOIN (
+            SELECT book_id, SUM(rating) AS rating_sum, COUNT(*) AS rating_count,
+                   COUNT(*) FILTER (WHERE rating = 1) AS count1,
+                   COUNT(*) FILTER (WHERE rating = 2) AS count2,
+                   COUNT(*) FILTER (WHERE rating = 3) AS count3,
+                   COUNT(*) FILTER (WHERE rating = 4) AS count4,
+                   COUNT(*) FILTER (WHERE rating = 5) AS count5
+            FROM reviews
+            WHERE book_id IS NOT NULL
+            GROUP BY book_id
+        ) a ON a.book_id = b.id
+        WHERE (b.rating_sum, b.rating_count,
+               b.rating_count1, b.rating_count2, b.rating_count3, b.rating_count4, b.rating_count5)
+              IS DISTINCT FROM
+              (COALESCE(a.rating_sum, 0), COALESCE(a.rating_count, 0),
+               COALESCE(a.count1, 0), COALESCE(a.count2, 0), COALESCE(a.count3, 0),
+               COALESCE(a.count4, 0), COALESCE(a.count5, 0))
+        ORDER BY b.id
+    """, nativeQuery = true)
+    List<Long> findIdsWithStaleRatingAggregates();
+
+    // Recompute the rating aggregates of the given books from their reviews.
+    // Books without reviews keep their average rating (e.g. from catalog seed data)
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+        UPDATE books b SET
+            rating_sum = a.rating_sum,
+            rating_count = a.rating_count,
+            rating_count1 = a.count1,
+            rating_count2 = a.count2,
+            rating_count3 = a.count3,
+            rating_count4 = a.count4,
+            rating_count5 = a.count5,
+            average_rating = CASE WHEN a.rating_count > 0
+                THEN CAST(a.rating_sum AS double precision) / a.rating_count
+                ELSE b.average_rating END,
+            updated_at = :updatedAt
+        FROM (
+            SELECT bk.id AS book_id, COALESCE(SUM(r.rating), 0) AS rating_sum, COUNT(r.id) AS rating_count,
+                   COUNT(r.id) FILTER (WHERE r.rating = 1) AS count1,
+                   COUNT(r.id) FILTER (WHERE r.rating = 2) AS count2,
+                   COUNT(r.id) FILTER (WHERE r.rating = 3) AS count3,
+                   COUNT(r.id) FILTER (WHERE r.rating = 4) AS count4,
+                   COUNT(r.id) FILTER (WHERE r.rating = 5) AS count5
+            FROM books bk LEFT JOIN reviews r ON r.book_id = bk.id
+            WHERE bk.id IN (:ids)
+            GROUP BY bk.id
+        ) a
+        WHERE b.id = a.book_id
+    """, nativeQuery = true)
+    int recomputeRatingAggregates(@Param("ids") Collection<Long> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Category links of all books, or of the given books, for the in-memory per-category rankings
+    @Query(value = "SELECT book_id AS bookId, category_id AS categoryId FROM book_categories", nativeQuery = true)
+    List<CategoryLink> findAllCategoryLinks();
+
+    @Query(value = """
+        SELECT book_id AS bookId, category_id AS categoryId
+        FROM book_categories
+        WHERE book_id IN (:bookIds)
+    """, nativeQuery = true)
+    List<CategoryLink> findCategoryLinks(@Param("bookIds") Collection<Long> bookIds);
+
+    interface CategoryLink {
+        Long getBookId();
+        Long getCategoryId();
+    }
+
+    // Catalog-wide totals used to seed and reconcile CatalogStatistics
+    @Query("""
+        SELECT COUNT(b) AS totalBooks,
+               COALESCE(SUM(CASE WHEN b.available = true THEN 1 ELSE 0 END), 0) AS availableBooks,
+               COALESCE(SUM(b.price), 0) AS priceSum,
+               COALESCE(SUM(b.averageRating), 0) AS ratingSum
+        FROM Book b
+    """)
+    CatalogAggregates.Totals aggregateTotals();
+
+    // Number of books per genre used to seed and reconcile CatalogStatistics
+    @Query("""
+        SELECT b.genre AS genre, COUNT(b) AS bookCount
+        FROM Book b
+        WHERE b.genre IS NOT NULL
+        GROUP BY b.genre
+    """)
+    List<CatalogAggregates.GenreCount> aggregateGenreCounts();
+
+    // Next batch of books in ID order, for keyset scans of the whole catalog by the in-memory indexes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Stream the whole catalog for export using a server-side cursor (requires an open transaction)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.bookmind.dto.BookExportRow(
+            b.id, b.isbn, b.title, b.author, b.genre, b.language, b.publisher, b.publicationYear,
+            b.price, b.available, b.pages, b.averageRating, b.coverImageUrl, b.description, b.updatedAt)
+        FROM Book b
+        ORDER BY b.id
+    """)
+    Stream<BookExportRow> streamExportRows();
 }
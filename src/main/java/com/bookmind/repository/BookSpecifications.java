@@ -0,0 +1,100 @@
+package com.bookmind.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.bookmind.model.Book;
+
+import jakarta.persistence.criteria.Path;
+
+/**
+ * Specification factory for Book queries.
+ * Only the criteria that are actually supplied end up in the WHERE clause.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * Combine the supplied search criteria with AND; null (or blank) criteria are skipped.
+     */
+    public static Specification<Book> search(
+            String title, String author, String genre, String description,
+            Double minPrice, Double maxPrice, Double minRating, Boolean available) {
+        List<Specification<Book>> specs = new ArrayList<>();
+        if (title != null && !title.isBlank()) specs.add(containsIgnoreCase("title", title));
+        if (author != null && !author.isBlank()) specs.add(containsIgnoreCase("author", author));
+        if (genre != null && !genre.isBlank()) specs.add(containsIgnoreCase("genre", genre));
+        if (description != null && !description.isBlank()) specs.add(containsIgnoreCase("description", description));
+        if (minPrice != null) specs.add(priceAtLeast(minPrice));
+        if (maxPrice != null) specs.add(priceAtMost(maxPrice));
+        if (minRating != null) specs.add(ratingAtLeast(minRating));
+        if (available != null) specs.add(availableIs(available));
+        return Specification.allOf(specs);
+    }
+
+    // LOWER(attribute) LIKE '%value%', matching the trigram index expressions
+    public static Specification<Book> containsIgnoreCase(String attribute, String value) {
+        String pattern = "%" + escapeLike(value.toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.<String>get(attribute)), pattern, '\\');
+    }
+
+    // the value as a substring of any text field: title, author, genre or description
+    public static Specification<Book> containsInAnyTextIgnoreCase(String value) {
+        return Specification.anyOf(
+                containsIgnoreCase("title", value),
+                containsIgnoreCase("author", value),
+                containsIgnoreCase("genre", value),
+                containsIgnoreCase("description", value));
+    }
+
+    public static Specification<Book> genreEqualsIgnoreCase(String genre) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.<String>get("genre")), genre.toLowerCase());
+    }
+
+    public static Specification<Book> priceAtLeast(double minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Double>get("price"), minPrice);
+    }
+
+    public static Specification<Book> priceAtMost(double maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<Double>get("price"), maxPrice);
+    }
+
+    public static Specification<Book> ratingAtLeast(double minRating) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Double>get("averageRating"), minRating);
+    }
+
+    // attribute <op> value, where op is one of <, <=, >, >=, =
+    public static <T extends Comparable<? super T>> Specification<Book> compare(String attribute, String operator, T value) {
+        return (root, query, cb) -> {
+            Path<T> path = root.get(attribute);
+            return switch (operator) {
+                case "<" -> cb.lessThan(path, value);
+                case "<=" -> cb.lessThanOrEqualTo(path, value);
+                case ">" -> cb.greaterThan(path, value);
+                case ">=" -> cb.greaterThanOrEqualTo(path, value);
+                case "=" -> cb.equal(path, value);
+                default -> throw new IllegalArgumentException("Unsupported comparison operator: " + operator);
+            };
+        };
+    }
+
+    public static Specification<Book> isbnIs(String isbn) {
+        return (root, query, cb) -> cb.equal(root.get("isbn"), isbn);
+    }
+
+    public static Specification<Book> availableIs(boolean available) {
+        return (root, query, cb) -> cb.equal(root.get("available"), available);
+    }
+
+    public static Specification<Book> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.join("categories").get("id"), categoryId);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,28 @@
+package com.bookmind.repository;
+
+import java.util.List;
+
+import com.bookmind.model.Book;
+
+/**
+ * Custom repository fragment for the pg_trgm backed substring search.
+ * Only the supplied predicates are rendered, so PostgreSQL can use the
+ * trigram GIN indexes on LOWER(title), LOWER(author) and LOWER(genre).
+ */
+public interface BookTrigramSearch {
+
+    // Check whether the pg_trgm extension is installed in the connected database
+    boolean isTrigramSearchAvailable();
+
+    // Substring search ordered by trigram similarity (best match first)
+    List<Book> trigramSearchBooks(
+        String title,
+        String author,
+        String genre,
+        String description,
+        Double minPrice,
+        Double maxPrice,
+        Double minRating,
+        Boolean available
+    );
+}
@@ -0,0 +1,124 @@
+package com.bookmind.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bookmind.model.Book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Native implementation of {@link BookTrigramSearch}.
+ *
+ * Text predicates are rendered as LOWER(col) LIKE '%term%' without the
+ * "(:param IS NULL OR ...)" wrapper, which is what lets the planner pick the
+ * trigram GIN indexes created by db/migration/V1__trigram_search_indexes.sql.
+ */
+@Slf4j
+public class BookTrigramSearchImpl implements BookTrigramSearch {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean trigramAvailable;
+
+    @Override
+    public boolean isTrigramSearchAvailable() {
+        Boolean available = trigramAvailable;
+        if (available == null) {
+            try {
+                Object result = entityManager
+                        .createNativeQuery("SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')")
+                        .getSingleResult();
+                available = Boolean.TRUE.equals(result);
+            } catch (PersistenceException e) {
+                log.warn("Could not detect pg_trgm extension, trigram search disabled: {}", e.getMessage());
+                available = false;
+            }
+            trigramAvailable = available;
+            log.info("Trigram search {}", available ? "enabled" : "disabled");
+        }
+        return available;
+    }
+
+    @Override
+    public List<Book> trigramSearchBooks(
+            String title, String author, String genre, String description,
+            Double minPrice, Double maxPrice, Double minRating, Boolean available) {
+        Filter filter = new Filter(title, author, genre, description, minPrice, maxPrice, minRating, available);
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT b.* FROM books b" + filter.where() + " ORDER BY " + filter.relevanceOrder(), Book.class);
+        filter.bind(query);
+
+        @SuppressWarnings("unchecked")
+        List<Book> books = query.getResultList();
+        return books;
+    }
+
+    /**
+     * Supplied search criteria rendered as SQL predicates and their bind parameters.
+     */
+    private static final class Filter {
+
+        private final List<String> predicates = new ArrayList<>();
+        private final List<String> similarityTerms = new ArrayList<>();
+        private final Map<String, Object> parameters = new HashMap<>();
+
+        Filter(String title, String author, String genre, String description,
+               Double minPrice, Double maxPrice, Double minRating, Boolean available) {
+            addText("title", "b.title", title, true);
+            addText("author", "b.author", author, true);
+            addText("genre", "b.genre", genre, true);
+            addText("description", "b.description", description, false);
+            addComparison("minPrice", "b.price >= :minPrice", minPrice);
+            addComparison("maxPrice", "b.price <= :maxPrice", maxPrice);
+            addComparison("minRating", "b.average_rating >= :minRating", minRating);
+            addComparison("available", "b.available = :available", available);
+        }
+
+        private void addText(String name, String column, String value, boolean ranked) {
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            String term = value.toLowerCase();
+            predicates.add("LOWER(" + column + ") LIKE :" + name + "Pattern");
+            parameters.put(name + "Pattern", "%" + escapeLike(term) + "%");
+            if (ranked) {
+                similarityTerms.add("similarity(LOWER(" + column + "), :" + name + ")");
+                parameters.put(name, term);
+            }
+        }
+
+        private void addComparison(String name, String predicate, Object value) {
+            if (value != null) {
+                predicates.add(predicate);
+                parameters.put(name, value);
+            }
+        }
+
+        String where() {
+            return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+        }
+
+        String relevanceOrder() {
+            return similarityTerms.isEmpty()
+                    ? "b.id"
+                    : "(" + String.join(" + ", similarityTerms) + ") DESC, b.id";
+        }
+
+        void bind(Query query) {
+            parameters.forEach(query::setParameter);
+        }
+
+        private static String escapeLike(String value) {
+            return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+    }
+}
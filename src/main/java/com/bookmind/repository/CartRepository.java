@@ -1,8 +1,12 @@
 package com.bookmind.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.bookmind.model.Cart;
 
@@ -16,4 +20,24 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 
     //Find active (not checked out) cart by user ID
     Optional<Cart> findByUserIdAndCheckedOutFalse(Long userId);
+
+    //Cart of a user with its items, for batch cart operations
+    @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.user.id = :userId")
+    Optional<Cart> findWithItemsByUserId(@Param("userId") Long userId);
+
+    //Carts with their items, for batched write-behind flushes
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.id IN :ids")
+    List<Cart> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    //Version stamp of the user's cart for conditional GETs (no entity load)
+    @Query("""
+        SELECT c.id AS cartId, c.totalPrice AS totalPrice, c.checkedOut AS checkedOut,
+               c.createdAt AS createdAt, c.updatedAt AS updatedAt,
+               COUNT(i) AS itemCount, COALESCE(SUM(i.quantity), 0) AS totalQuantity,
+               MAX(b.updatedAt) AS booksUpdatedAt
+        FROM Cart c LEFT JOIN c.items i LEFT JOIN i.book b
+        WHERE c.user.id = :userId
+        GROUP BY c.id, c.totalPrice, c.checkedOut, c.createdAt, c.updatedAt
+    """)
+    Optional<ResourceStamps.CartStamp> findStampByUserId(@Param("userId") Long userId);
 }
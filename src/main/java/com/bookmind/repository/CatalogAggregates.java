@@ -0,0 +1,22 @@
+package com.bookmind.repository;
+
+/**
+ * Projections for the catalog-wide aggregate queries in BookRepository.
+ */
+public final class CatalogAggregates {
+
+    private CatalogAggregates() {
+    }
+
+    public interface Totals {
+        long getTotalBooks();
+        long getAvailableBooks();
+        double getPriceSum();
+        double getRatingSum();
+    }
+
+    public interface GenreCount {
+        String getGenre();
+        long getBookCount();
+    }
+}
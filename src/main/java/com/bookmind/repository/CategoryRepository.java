@@ -2,11 +2,16 @@ package com.bookmind.repository;
 
 import com.bookmind.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-    // Custom query methods can be defined here if needed
-    // For example:
-    // List<Category> findByNameContaining(String name);
+    // IDs of the given categories that exist
+    @Query("SELECT c.id FROM Category c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 
 }
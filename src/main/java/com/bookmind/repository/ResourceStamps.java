@@ -0,0 +1,33 @@
+package com.bookmind.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projections for the version queries behind conditional GETs.
+ * They read only timestamps and aggregates, never the full entity graph.
+ */
+public final class ResourceStamps {
+
+    private ResourceStamps() {
+    }
+
+    public interface CartStamp {
+        Long getCartId();
+        double getTotalPrice();
+        boolean getCheckedOut();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        long getItemCount();
+        long getTotalQuantity();
+        LocalDateTime getBooksUpdatedAt();
+    }
+
+    public interface WishListStamp {
+        Long getWishListId();
+        String getName();
+        LocalDateTime getUpdatedAt();
+        long getBookCount();
+        long getBookIdSum();
+        LocalDateTime getBooksUpdatedAt();
+    }
+}
@@ -1,13 +1,22 @@
 package com.bookmind.repository;
 
+import com.bookmind.dto.ReviewDto;
 import com.bookmind.model.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    // Custom query methods can be defined here if needed
-    // For example:
-    // List<Review> findByBookId(Long bookId);
-    // List<Review> findByUserId(Long userId);
+    // Reviews of a book with the reviewer's name, newest first, in a single query
+    @Query("""
+        SELECT new com.bookmind.dto.ReviewDto(r.id, u.id, u.username, r.rating, r.comment, r.createdAt)
+        FROM Review r LEFT JOIN r.user u
+        WHERE r.book.id = :bookId
+        ORDER BY r.createdAt DESC, r.id DESC
+    """)
+    List<ReviewDto> findReviewDtosByBookId(@Param("bookId") Long bookId);
 
 }
@@ -28,4 +28,16 @@ public interface WishListRepository extends JpaRepository<WishList, Long> {
     AND w.id <> :wishlistId
     """)
     boolean existsByUserIdAndNameExceptId(@Param("userId") Long userId, @Param("name") String name, @Param("whislistId") Long wishlistId);
-}
\ No newline at end of file
+
+    // Version stamp of a wishlist for conditional GETs (no entity load)
+    @Query("""
+        SELECT w.id AS wishListId, w.name AS name, w.updatedAt AS updatedAt,
+               COUNT(b) AS bookCount, COALESCE(SUM(b.id), 0) AS bookIdSum,
+               MAX(b.updatedAt) AS booksUpdatedAt
+        FROM WishList w LEFT JOIN w.books b
+        WHERE w.user.id = :userId AND w.id = :wishlistId
+        GROUP BY w.id, w.name, w.updatedAt
+    """)
+    Optional<ResourceStamps.WishListStamp> findStampByUserIdAndWishListId(
+            @Param("userId") Long userId, @Param("wishlistId") Long wishlistId);
+}
@@ -0,0 +1,135 @@
+package com.bookmind.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bookmind.model.Book;
+import com.bookmind.repository.BookRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces concurrent single-book lookups into one IN query, DataLoader-style.
+ *
+ * A lookup that arrives while no batch query is running is dispatched at once, so an idle
+ * loader adds no latency. While a query is running, lookups collect into the next batch,
+ * which is loaded with one findAllById when its short window closes or it is full. Books are
+ * always loaded on the loader threads, outside the caller's persistence context, so they are
+ * detached, which is what BookCache hands out. A window of 0 disables coalescing and every
+ * lookup runs its own query. Lookups fail with a TimeoutException if their query takes too long.
+ */
+@Slf4j
+@Component
+public class BookBatchLoader implements DisposableBean {
+
+    private static final int LOADER_THREADS = 4;
+
+    private final BookRepository bookRepository;
+    private final long windowMicros;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<Optional<Book>>> pending = new HashMap<>();
+    // Batch queries currently running, guarded by lock
+    private int inFlight;
+
+    public BookBatchLoader(
+            BookRepository bookRepository,
+            @Value("${app.book-loader.window-micros:2000}") long windowMicros,
+            @Value("${app.book-loader.max-batch-size:100}") int maxBatchSize,
+            @Value("${app.book-loader.timeout-millis:5000}") long timeoutMillis) {
+        this.bookRepository = bookRepository;
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "book-batch-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Book batch loader configured with window {}us, maximum batch size {} and timeout {}ms",
+                windowMicros, maxBatchSize, timeoutMillis);
+    }
+
+    /**
+     * Load a book, batched with concurrent lookups of other books.
+     *
+     * @param bookId ID of the book
+     * @return completes with the book, or empty if it does not exist; completes exceptionally
+     *         if the query fails or does not finish within the timeout
+     */
+    public CompletableFuture<Optional<Book>> loadAsync(Long bookId) {
+        if (windowMicros <= 0) {
+            // Still loaded on a loader thread: a book read in the caller's (open-in-view) persistence
+            // context would be managed, and a later findById in that session would return the cached instance
+            return CompletableFuture.supplyAsync(() -> bookRepository.findById(bookId), executor)
+                    .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        synchronized (lock) {
+            CompletableFuture<Optional<Book>> future = pending.get(bookId);
+            if (future == null) {
+                future = new CompletableFuture<Optional<Book>>().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+                pending.put(bookId, future);
+                if (pending.size() == 1) {
+                    // Nothing to wait for when idle; otherwise collect lookups while the running query finishes
+                    if (inFlight == 0) {
+                        executor.execute(this::flush);
+                    } else {
+                        executor.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+                    }
+                } else if (pending.size() >= maxBatchSize) {
+                    executor.execute(this::flush);
+                }
+            }
+            return future;
+        }
+    }
+
+    // Take the pending batch and load it; a timer left over from a batch that was flushed
+    // early because it was full only closes the following batch sooner
+    private void flush() {
+        Map<Long, CompletableFuture<Optional<Book>>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            inFlight++;
+        }
+
+        try {
+            List<Book> books = bookRepository.findAllById(batch.keySet());
+            Map<Long, Book> booksById = new HashMap<>();
+            books.forEach(book -> booksById.put(book.getId(), book));
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(booksById.get(id))));
+            log.debug("Loaded {} books in one batch", batch.size());
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            synchronized (lock) {
+                inFlight--;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,144 @@
+package com.bookmind.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.CatalogImportedEvent;
+import com.bookmind.model.Book;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded read-through cache for Book lookups by ID.
+ *
+ * Entries are evicted by size and by time since write, and are invalidated on every
+ * committed book change. Misses are loaded asynchronously by BookBatchLoader: the caller
+ * waits on the pending load outside the cache's locks, and concurrent misses for the same
+ * book share it. Cached books are detached and shared between requests: callers
+ * may read them or use them as association targets, but must never modify them.
+ * Code that changes a book has to load it from BookRepository instead.
+ */
+@Slf4j
+@Component
+public class BookCache {
+
+    private final AsyncLoadingCache<Long, Book> asyncCache;
+    private final Cache<Long, Book> cache;
+
+    public BookCache(
+            BookBatchLoader bookBatchLoader,
+            @Value("${app.book-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.book-cache.ttl-seconds:600}") long ttlSeconds) {
+        // A load that completes with null (missing book) or fails is not cached
+        this.asyncCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync((id, executor) -> bookBatchLoader.loadAsync(id).thenApply(book -> book.orElse(null)));
+        this.cache = asyncCache.synchronous();
+        log.info("Book cache configured with maximum size {} and TTL {}s", maximumSize, ttlSeconds);
+    }
+
+    /**
+     * Get a book, loading it from the database on a miss. Concurrent misses for different books
+     * are coalesced into one query by BookBatchLoader. Missing books are not cached.
+     *
+     * @param bookId ID of the book
+     * @return the book, or empty if it does not exist
+     */
+    public Optional<Book> get(Long bookId) {
+        try {
+            return Optional.ofNullable(asyncCache.get(bookId).join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drop a book from the cache now and, if a transaction is running, again after it commits,
+     * so a concurrent reader cannot re-cache the pre-commit state.
+     *
+     * @param bookId ID of the book
+     */
+    public void invalidate(Long bookId) {
+        cache.invalidate(bookId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(bookId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop several books from the cache now and again after the running transaction commits.
+     *
+     * @param bookIds IDs of the books
+     * @see #invalidate(Long)
+     */
+    public void invalidateAll(Collection<Long> bookIds) {
+        List<Long> ids = List.copyOf(bookIds);
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    /**
+     * Invalidate a book after any committed change published by BookService.
+     *
+     * @param event the book change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        cache.invalidate(event.getBookId());
+    }
+
+    /**
+     * Drop every cached book after a committed bulk catalog import.
+     *
+     * @param event the import published by BookImportService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return hit, miss and eviction counters since startup
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return approximate number of cached books
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,165 @@
+package com.bookmind.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookmind.dto.BookExportRow;
+import com.bookmind.exception.UnsupportedFormatException;
+import com.bookmind.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service for streaming the book catalog to partner feeds.
+ *
+ * Rows are read through a server-side cursor (bounded JDBC fetch size) as unmanaged
+ * BookExportRow projections and written straight to the output stream, so heap usage
+ * stays flat regardless of catalog size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String[] CSV_HEADER = {
+        "id", "isbn", "title", "author", "genre", "language", "publisher", "publicationYear",
+        "price", "available", "pages", "averageRating", "coverImageUrl", "description", "updatedAt"
+    };
+
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+
+        /**
+         * Resolve a format from a request parameter (case-insensitive).
+         *
+         * @throws UnsupportedFormatException if the format is not supported
+         */
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new UnsupportedFormatException("Unsupported export format: " + value + ". Valid values are: ndjson, csv");
+        }
+    }
+
+    /**
+     * Stream the whole catalog to the given output stream.
+     * The transaction keeps the database cursor open for the duration of the export.
+     *
+     * @param format the output format
+     * @param outputStream the response output stream (not closed by this method)
+     * @return number of books written
+     * @throws IOException if writing to the output stream fails
+     */
+    @Transactional(readOnly = true)
+    public long exportCatalog(Format format, OutputStream outputStream) throws IOException {
+        log.info("Starting {} catalog export", format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        long count = 0;
+        try (Stream<BookExportRow> rows = bookRepository.streamExportRows()) {
+            if (format == Format.CSV) {
+                writeCsvLine(writer, CSV_HEADER);
+            }
+            Iterator<BookExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                BookExportRow row = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                    log.debug("Exported {} books so far", count);
+                }
+            }
+        }
+        writer.flush();
+
+        log.info("Finished {} catalog export: {} books", format, count);
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, BookExportRow row) throws IOException {
+        writeCsvLine(writer, new String[] {
+            String.valueOf(row.getId()),
+            row.getIsbn(),
+            row.getTitle(),
+            row.getAuthor(),
+            row.getGenre(),
+            row.getLanguage(),
+            row.getPublisher(),
+            String.valueOf(row.getPublicationYear()),
+            String.valueOf(row.getPrice()),
+            row.getAvailable() != null ? row.getAvailable().toString() : null,
+            String.valueOf(row.getPages()),
+            String.valueOf(row.getAverageRating()),
+            row.getCoverImageUrl(),
+            row.getDescription(),
+            row.getUpdatedAt() != null ? row.getUpdatedAt().toString() : null
+        });
+    }
+
+    private void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quote a CSV field (RFC 4180) when it contains a separator, quote or line break.
+     */
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,410 @@
+package com.bookmind.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.BookSnapshot;
+import com.bookmind.event.CatalogImportedEvent;
+import com.bookmind.model.Book;
+import com.bookmind.repository.BookRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory compressed bitmap index over the facetable book fields.
+ *
+ * Every book gets a dense int ordinal, and every facet value owns a RoaringBitmap of the
+ * ordinals that carry it. Filters are evaluated as bitmap unions (values of one facet)
+ * and intersections (across facets), and facet counts are intersection cardinalities,
+ * so a faceted search never runs GROUP BY queries. The index is built once at startup
+ * and kept current from BookChangedEvents; results may be incomplete while the startup
+ * build is still running.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookFacetIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+    // Changes applied while a rebuild reads the catalog, replayed onto the rebuilt index; null otherwise
+    private List<Consumer<IndexData>> pendingChanges;
+    private volatile boolean ready = false;
+
+    /**
+     * Facetable book fields. Price and rating are bucketed into fixed bands.
+     */
+    public enum Facet {
+        GENRE("genre"),
+        LANGUAGE("language"),
+        PUBLISHER("publisher"),
+        PRICE_BAND("priceBand"),
+        RATING_BAND("ratingBand"),
+        AVAILABILITY("available");
+
+        private final String key;
+
+        Facet(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return the facet name used in request parameters and responses
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * One page of a faceted search.
+     *
+     * @param bookIds IDs of the matching books on this page, ascending
+     * @param totalMatches number of books matching all filters
+     * @param hasNext whether more matching books follow this page
+     * @param facetCounts per facet, the number of matching books for each value
+     */
+    public record FacetSearchResult(
+            List<Long> bookIds, long totalMatches, boolean hasNext, Map<Facet, Map<String, Long>> facetCounts) {
+    }
+
+    /**
+     * The index structures. A rebuild fills a fresh instance and swaps it in, so searches
+     * keep using the previous one until the new one is complete.
+     */
+    private static final class IndexData {
+        private final Map<Long, Integer> ordinalsById = new HashMap<>();
+        private final List<Long> idsByOrdinal = new ArrayList<>();
+        // ordinal -> facet values of the book, indexed by Facet.ordinal()
+        private final List<String[]> valuesByOrdinal = new ArrayList<>();
+        private final RoaringBitmap liveBooks = new RoaringBitmap();
+        private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+
+        private void index(Long bookId, String[] values) {
+            Integer ordinal = ordinalsById.get(bookId);
+            if (ordinal == null) {
+                ordinal = idsByOrdinal.size();
+                ordinalsById.put(bookId, ordinal);
+                idsByOrdinal.add(bookId);
+                valuesByOrdinal.add(null);
+            } else {
+                clearValues(ordinal);
+            }
+            for (Facet facet : Facet.values()) {
+                String value = values[facet.ordinal()];
+                if (value != null) {
+                    bitmaps.computeIfAbsent(facet, f -> new HashMap<>())
+                            .computeIfAbsent(value, v -> new RoaringBitmap())
+                            .add(ordinal);
+                }
+            }
+            valuesByOrdinal.set(ordinal, values);
+            liveBooks.add(ordinal);
+        }
+
+        // The book's ordinal is retired, not reused
+        private void remove(Long bookId) {
+            Integer ordinal = ordinalsById.get(bookId);
+            if (ordinal != null) {
+                clearValues(ordinal);
+                valuesByOrdinal.set(ordinal, null);
+                liveBooks.remove(ordinal);
+            }
+        }
+
+        private void clearValues(int ordinal) {
+            String[] previous = valuesByOrdinal.get(ordinal);
+            if (previous == null) {
+                return;
+            }
+            for (Facet facet : Facet.values()) {
+                String value = previous[facet.ordinal()];
+                if (value == null) {
+                    continue;
+                }
+                Map<String, RoaringBitmap> values = bitmaps.get(facet);
+                RoaringBitmap bitmap = values.get(value);
+                if (bitmap != null) {
+                    bitmap.remove(ordinal);
+                    if (bitmap.isEmpty()) {
+                        values.remove(value);
+                    }
+                }
+            }
+        }
+
+        // Union of the bitmaps of the selected values of one facet (values are matched case-insensitively)
+        private RoaringBitmap union(Facet facet, Set<String> selected) {
+            Map<String, RoaringBitmap> values = bitmaps.getOrDefault(facet, Collections.emptyMap());
+            Set<String> wanted = new HashSet<>();
+            selected.forEach(value -> wanted.add(value.trim().toLowerCase()));
+
+            RoaringBitmap result = new RoaringBitmap();
+            values.forEach((value, bitmap) -> {
+                if (wanted.contains(value.toLowerCase())) {
+                    result.or(bitmap);
+                }
+            });
+            return result;
+        }
+
+        // Intersection of the live books with every facet filter except `excluded`
+        private RoaringBitmap intersect(Map<Facet, RoaringBitmap> facetFilters, Facet excluded) {
+            RoaringBitmap result = liveBooks.clone();
+            facetFilters.forEach((facet, bitmap) -> {
+                if (facet != excluded) {
+                    result.and(bitmap);
+                }
+            });
+            return result;
+        }
+    }
+
+    /**
+     * Build the index from the books table once the application has started, and again after
+     * a bulk import. Books are read in ID-ordered keyset batches into a fresh index, which
+     * replaces the live one once complete; book changes committed meanwhile are replayed onto it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        log.info("Building book facet index");
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData rebuilt = new IndexData();
+        boolean complete = false;
+        try {
+            long afterId = 0;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                for (Book book : batch) {
+                    rebuilt.index(book.getId(), facetValues(BookSnapshot.of(book)));
+                    afterId = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    // A batch read before a change committed may hold the older state of the book
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    data = rebuilt;
+                }
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        ready = true;
+        log.info("Book facet index built with {} books", rebuilt.liveBooks.getLongCardinality());
+    }
+
+    /**
+     * @return true once the startup build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Keep the index in step with committed book writes.
+     *
+     * @param event the book change published by BookService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getAfter() == null) {
+            remove(event.getBookId());
+        } else {
+            index(event.getAfter());
+        }
+    }
+
+    /**
+     * Rebuild the index after a committed bulk catalog import, which publishes no per-book events.
+     * Nothing to do before the startup build has run: it will read the imported books.
+     * Runs asynchronously; facet counts come from the current bitmaps until the rebuilt ones are swapped in.
+     *
+     * @param event the import published by BookImportService
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Add or replace a book in the index.
+     *
+     * @param book the book to index, ignored if null or not yet persisted
+     */
+    public void index(BookSnapshot book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        String[] values = facetValues(book);
+        apply(index -> index.index(book.getId(), values));
+    }
+
+    /**
+     * Remove a book from the index. Its ordinal is retired, not reused.
+     *
+     * @param bookId ID of the book to remove
+     */
+    public void remove(Long bookId) {
+        apply(index -> index.remove(bookId));
+    }
+
+    // Apply a change to the live index, recording it for replay while a rebuild reads the catalog
+    private void apply(Consumer<IndexData> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(data);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the books matching the filters and count facet values over the matches.
+     *
+     * Values of one facet are OR'ed, facets are AND'ed. Counts for a facet are computed
+     * with every filter except that facet's own, so the client can offer the other values
+     * of an already selected facet (multi-select faceting).
+     *
+     * @param filters selected values per facet; facets without values are not filtered
+     * @param afterId only return books with a larger ID (keyset cursor), null for the first page
+     * @param limit maximum number of book IDs to return
+     * @return the page of matching book IDs with facet counts
+     */
+    public FacetSearchResult search(Map<Facet, Set<String>> filters, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            IndexData index = data;
+            Map<Facet, RoaringBitmap> facetFilters = new EnumMap<>(Facet.class);
+            filters.forEach((facet, values) -> {
+                if (values != null && !values.isEmpty()) {
+                    facetFilters.put(facet, index.union(facet, values));
+                }
+            });
+
+            RoaringBitmap matches = index.intersect(facetFilters, null);
+
+            Map<Facet, Map<String, Long>> facetCounts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                RoaringBitmap base = facetFilters.containsKey(facet) ? index.intersect(facetFilters, facet) : matches;
+                Map<String, Long> counts = new TreeMap<>();
+                index.bitmaps.getOrDefault(facet, Collections.emptyMap()).forEach((value, bitmap) -> {
+                    long count = RoaringBitmap.andCardinality(base, bitmap);
+                    if (count > 0) {
+                        counts.put(value, count);
+                    }
+                });
+                facetCounts.put(facet, counts);
+            }
+
+            // Keep the `limit + 1` smallest IDs after the cursor in a max-heap
+            PriorityQueue<Long> smallest = new PriorityQueue<>(Collections.reverseOrder());
+            IntIterator iterator = matches.getIntIterator();
+            while (iterator.hasNext()) {
+                long id = index.idsByOrdinal.get(iterator.next());
+                if (afterId != null && id <= afterId) {
+                    continue;
+                }
+                if (smallest.size() <= limit) {
+                    smallest.add(id);
+                } else if (id < smallest.peek()) {
+                    smallest.poll();
+                    smallest.add(id);
+                }
+            }
+            List<Long> page = new ArrayList<>(smallest);
+            Collections.sort(page);
+            boolean hasNext = page.size() > limit;
+            if (hasNext) {
+                page = page.subList(0, limit);
+            }
+
+            return new FacetSearchResult(page, matches.getLongCardinality(), hasNext, facetCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the price band label for a price
+     */
+    public static String priceBand(double price) {
+        if (price < 10) return "0-10";
+        if (price < 25) return "10-25";
+        if (price < 50) return "25-50";
+        if (price < 100) return "50-100";
+        return "100+";
+    }
+
+    /**
+     * @return the rating band label for an average rating
+     */
+    public static String ratingBand(double rating) {
+        if (rating < 1) return "0-1";
+        if (rating < 2) return "1-2";
+        if (rating < 3) return "2-3";
+        if (rating < 4) return "3-4";
+        return "4-5";
+    }
+
+    private static String[] facetValues(BookSnapshot book) {
+        String[] values = new String[Facet.values().length];
+        values[Facet.GENRE.ordinal()] = normalize(book.getGenre());
+        values[Facet.LANGUAGE.ordinal()] = normalize(book.getLanguage());
+        values[Facet.PUBLISHER.ordinal()] = normalize(book.getPublisher());
+        values[Facet.PRICE_BAND.ordinal()] = priceBand(book.getPrice());
+        values[Facet.RATING_BAND.ordinal()] = ratingBand(book.getAverageRating());
+        values[Facet.AVAILABILITY.ordinal()] = String.valueOf(Boolean.TRUE.equals(book.getAvailable()));
+        return values;
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookmind.service;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.bookmind.dto.BookImportResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command-line mode of the bulk catalog import.
+ *
+ * When started with app.import.file set, the application imports that file (or standard input
+ * for "-") and exits; the exit code is 0, or 2 if rows were rejected. For example:
+ *
+ *   java -jar bookmind.jar --spring.main.web-application-type=none --app.import.file=catalog.csv
+ *
+ * The format is taken from app.import.format, or else from the file extension.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.import.file")
+public class BookImportRunner implements ApplicationRunner {
+
+    private static final int EXIT_ROWS_REJECTED = 2;
+
+    private final BookImportService bookImportService;
+    private final ConfigurableApplicationContext context;
+    private final String file;
+    private final String format;
+
+    public BookImportRunner(
+            BookImportService bookImportService,
+            ConfigurableApplicationContext context,
+            @Value("${app.import.file}") String file,
+            @Value("${app.import.format:}") String format) {
+        this.bookImportService = bookImportService;
+        this.context = context;
+        this.file = file;
+        this.format = format;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        BookImportService.Format importFormat = format.isBlank()
+                ? BookImportService.Format.fromFileName(file)
+                : BookImportService.Format.from(format);
+        log.info("Importing catalog from {} as {}", "-".equals(file) ? "standard input" : file, importFormat);
+
+        BookImportResult result;
+        if ("-".equals(file)) {
+            result = bookImportService.importCatalog(importFormat, System.in);
+        } else {
+            try (InputStream inputStream = Files.newInputStream(Path.of(file))) {
+                result = bookImportService.importCatalog(importFormat, inputStream);
+            }
+        }
+
+        log.info("Catalog import summary: {} rows read, {} books inserted, {} updated, {} rejected in {} ms",
+                result.getRowsRead(), result.getBooksInserted(), result.getBooksUpdated(),
+                result.getRowsRejected(), result.getDurationMillis());
+        result.getRejects().forEach(reject ->
+                log.warn("Rejected line {} (ISBN {}): {}", reject.getLine(), reject.getIsbn(), reject.getReason()));
+        if (result.isRejectsTruncated()) {
+            log.warn("Only the first {} of {} rejected rows are listed", result.getRejects().size(), result.getRowsRejected());
+        }
+
+        int exitCode = SpringApplication.exit(context, () -> result.getRowsRejected() > 0 ? EXIT_ROWS_REJECTED : 0);
+        System.exit(exitCode);
+    }
+}
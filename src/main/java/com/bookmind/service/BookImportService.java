@@ -0,0 +1,572 @@
+package com.bookmind.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookmind.dto.BookImportReject;
+import com.bookmind.dto.BookImportResult;
+import com.bookmind.event.CatalogImportedEvent;
+import com.bookmind.exception.InvalidImportFileException;
+import com.bookmind.exception.UnsupportedFormatException;
+import com.bookmind.utility.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk loader for publisher catalogs.
+ *
+ * The input is parsed as a stream, validated row by row and written through the PostgreSQL
+ * COPY protocol into a temporary staging table, so the file is never held in memory. Invalid
+ * rows are reported as rejects instead of failing the import. The staged rows are then merged
+ * into books and book_categories by ISBN with a handful of set-based statements. An import is
+ * a single transaction, and concurrent imports are serialized with an advisory lock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookImportService {
+
+    // Arbitrary key for pg_advisory_xact_lock ("BookImpt")
+    private static final long IMPORT_LOCK_KEY = 0x426f6f6b496d7074L;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_EVERY_ROWS = 100_000;
+    private static final int MAX_REPORTED_REJECTS = 1000;
+    private static final int MAX_CATEGORY_NAME_LENGTH = 255;
+    private static final String CATEGORY_SEPARATOR = "|";
+    // allocationSize of the entity ID generators (INCREMENT BY of books_seq and categories_seq)
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String CREATE_STAGING_TABLE = """
+        CREATE TEMP TABLE book_import_staging (
+            line_no          bigint NOT NULL,
+            isbn             text NOT NULL,
+            title            text NOT NULL,
+            author           text,
+            description      text,
+            genre            text,
+            language         text,
+            publisher        text,
+            publication_year integer,
+            price            double precision,
+            available        boolean,
+            pages            integer,
+            cover_image_url  text,
+            categories       text
+        ) ON COMMIT DROP
+    """;
+
+    private static final String COPY_STAGING_ROWS = """
+        COPY book_import_staging (line_no, isbn, title, author, description, genre, language, publisher,
+                                  publication_year, price, available, pages, cover_image_url, categories)
+        FROM STDIN WITH (FORMAT csv)
+    """;
+
+    // Keep only the last row per ISBN
+    private static final String DELETE_DUPLICATE_ROWS = """
+        DELETE FROM book_import_staging
+        WHERE line_no IN (
+            SELECT line_no FROM (
+                SELECT line_no, row_number() OVER (PARTITION BY isbn ORDER BY line_no DESC) AS rank_from_last
+                FROM book_import_staging
+            ) ranked
+            WHERE rank_from_last > 1
+        )
+    """;
+
+    // Columns missing from the input keep their current value; unchanged books are not rewritten.
+    // The version is bumped so editors holding the old one get a conflict instead of overwriting the import.
+    private static final String UPDATE_EXISTING_BOOKS = """
+        UPDATE books b SET
+            title = s.title,
+            author = COALESCE(s.author, b.author),
+            description = COALESCE(s.description, b.description),
+            genre = COALESCE(s.genre, b.genre),
+            language = COALESCE(s.language, b.language),
+            publisher = COALESCE(s.publisher, b.publisher),
+            publication_year = COALESCE(s.publication_year, b.publication_year),
+            price = COALESCE(s.price, b.price),
+            available = COALESCE(s.available, b.available),
+            pages = COALESCE(s.pages, b.pages),
+            cover_image_url = COALESCE(s.cover_image_url, b.cover_image_url),
+            updated_at = ?,
+            version = b.version + 1
+        FROM book_import_staging s
+        WHERE b.isbn = s.isbn
+        AND (b.title, b.author, b.description, b.genre, b.language, b.publisher, b.publication_year,
+             b.price, b.available, b.pages, b.cover_image_url)
+            IS DISTINCT FROM
+            (s.title, COALESCE(s.author, b.author), COALESCE(s.description, b.description),
+             COALESCE(s.genre, b.genre), COALESCE(s.language, b.language), COALESCE(s.publisher, b.publisher),
+             COALESCE(s.publication_year, b.publication_year), COALESCE(s.price, b.price),
+             COALESCE(s.available, b.available), COALESCE(s.pages, b.pages),
+             COALESCE(s.cover_image_url, b.cover_image_url))
+    """;
+
+    // IDs come from books_seq the way the pooled-lo optimizer takes them: each nextval() reserves
+    // ID_BLOCK_SIZE IDs, so one is drawn per block of new rows instead of one per row
+    private static final String INSERT_NEW_BOOKS = """
+        WITH new_books AS (
+            SELECT s.*, row_number() OVER (ORDER BY s.line_no) - 1 AS n
+            FROM book_import_staging s
+            WHERE NOT EXISTS (SELECT 1 FROM books b WHERE b.isbn = s.isbn)
+        ),
+        id_blocks AS (
+            SELECT block, nextval('books_seq') AS first_id
+            FROM (SELECT DISTINCT n / %1$d AS block FROM new_books) blocks
+        )
+        INSERT INTO books (id, isbn, title, author, description, genre, language, publisher, publication_year,
+                           price, available, pages, average_rating, cover_image_url, created_at, updated_at)
+        SELECT ib.first_id + s.n %% %1$d, s.isbn, s.title, s.author, s.description, s.genre, s.language, s.publisher,
+               COALESCE(s.publication_year, 0), COALESCE(s.price, 0), COALESCE(s.available, true),
+               COALESCE(s.pages, 0), 0, s.cover_image_url, ?, ?
+        FROM new_books s
+        JOIN id_blocks ib ON ib.block = s.n / %1$d
+        ORDER BY s.n
+    """.formatted(ID_BLOCK_SIZE);
+
+    private static final String CREATE_CATEGORY_NAMES_TABLE = """
+        CREATE TEMP TABLE book_import_categories ON COMMIT DROP AS
+        SELECT DISTINCT s.isbn, trim(c.name) AS name
+        FROM book_import_staging s
+        CROSS JOIN LATERAL unnest(string_to_array(s.categories, '|')) AS c(name)
+        WHERE trim(c.name) <> ''
+    """;
+
+    // Category names are matched case-insensitively; IDs are drawn in blocks like the books'
+    private static final String INSERT_NEW_CATEGORIES = """
+        WITH new_categories AS (
+            SELECT name, row_number() OVER (ORDER BY lower(name)) - 1 AS n
+            FROM (
+                SELECT DISTINCT ON (lower(name)) name
+                FROM book_import_categories
+                ORDER BY lower(name), name
+            ) d
+            WHERE NOT EXISTS (SELECT 1 FROM categories c WHERE lower(c.name) = lower(d.name))
+        ),
+        id_blocks AS (
+            SELECT block, nextval('categories_seq') AS first_id
+            FROM (SELECT DISTINCT n / %1$d AS block FROM new_categories) blocks
+        )
+        INSERT INTO categories (id, name, created_at, updated_at)
+        SELECT ib.first_id + nc.n %% %1$d, nc.name, ?, ?
+        FROM new_categories nc
+        JOIN id_blocks ib ON ib.block = nc.n / %1$d
+    """.formatted(ID_BLOCK_SIZE);
+
+    // Categories are only added; existing links of an imported book are kept
+    private static final String INSERT_CATEGORY_LINKS = """
+        INSERT INTO book_categories (book_id, category_id)
+        SELECT DISTINCT b.id, c.id
+        FROM book_import_categories ic
+        JOIN books b ON b.isbn = ic.isbn
+        JOIN categories c ON lower(c.name) = lower(ic.name)
+        WHERE NOT EXISTS (
+            SELECT 1 FROM book_categories bc WHERE bc.book_id = b.id AND bc.category_id = c.id
+        )
+    """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Supported import formats.
+     */
+    public enum Format {
+        CSV,
+        NDJSON;
+
+        /**
+         * Resolve a format from a request parameter (case-insensitive); jsonl is accepted for ndjson.
+         *
+         * @throws UnsupportedFormatException if the format is not supported
+         */
+        public static Format from(String value) {
+            if ("jsonl".equalsIgnoreCase(value)) {
+                return NDJSON;
+            }
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new UnsupportedFormatException("Unsupported import format: " + value + ". Valid values are: csv, ndjson, jsonl");
+        }
+
+        /**
+         * Resolve a format from a file extension (.csv, .ndjson or .jsonl).
+         *
+         * @throws UnsupportedFormatException if the extension is missing or not supported
+         */
+        public static Format fromFileName(String fileName) {
+            int dot = fileName.lastIndexOf('.');
+            if (dot < 0) {
+                throw new UnsupportedFormatException("Cannot derive the import format of " + fileName + "; specify it explicitly");
+            }
+            return from(fileName.substring(dot + 1));
+        }
+    }
+
+    /**
+     * Input columns. Header names and JSON keys are matched case-insensitively and
+     * ignoring underscores, so both publicationYear and publication_year are accepted.
+     * Unknown columns (e.g. id or averageRating from a catalog export) are ignored.
+     */
+    private enum Column {
+        ISBN("isbn", Type.TEXT, 255, true),
+        TITLE("title", Type.TEXT, 255, true),
+        AUTHOR("author", Type.TEXT, 255, false),
+        DESCRIPTION("description", Type.TEXT, 2000, false),
+        GENRE("genre", Type.TEXT, 255, false),
+        LANGUAGE("language", Type.TEXT, 255, false),
+        PUBLISHER("publisher", Type.TEXT, 255, false),
+        PUBLICATION_YEAR("publicationYear", Type.INTEGER, 0, false),
+        PRICE("price", Type.DECIMAL, 0, false),
+        AVAILABLE("available", Type.BOOLEAN, 0, false),
+        PAGES("pages", Type.INTEGER, 0, false),
+        COVER_IMAGE_URL("coverImageUrl", Type.TEXT, 255, false),
+        // Category names separated by '|'; JSON input may also use an array
+        CATEGORIES("categories", Type.TEXT, 0, false);
+
+        private enum Type { TEXT, INTEGER, DECIMAL, BOOLEAN }
+
+        private static final Map<String, Column> BY_NAME = new HashMap<>();
+
+        static {
+            for (Column column : values()) {
+                BY_NAME.put(normalizeName(column.key), column);
+            }
+        }
+
+        private final String key;
+        private final Type type;
+        private final int maxLength;
+        private final boolean required;
+
+        Column(String key, Type type, int maxLength, boolean required) {
+            this.key = key;
+            this.type = type;
+            this.maxLength = maxLength;
+            this.required = required;
+        }
+
+        private static Column fromName(String name) {
+            return BY_NAME.get(normalizeName(name));
+        }
+
+        private static String normalizeName(String name) {
+            return name.replace("\uFEFF", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Running counters of one import.
+     */
+    private static final class ImportProgress {
+        private long rowsRead;
+        private long rowsStaged;
+        private long rowsRejected;
+        private final List<BookImportReject> rejects = new ArrayList<>();
+
+        private void rowRead() {
+            if (++rowsRead % PROGRESS_EVERY_ROWS == 0) {
+                log.info("Catalog import: {} rows read, {} staged, {} rejected", rowsRead, rowsStaged, rowsRejected);
+            }
+        }
+
+        private void reject(long line, String isbn, String reason) {
+            rowsRejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(BookImportReject.builder().line(line).isbn(isbn).reason(reason).build());
+            }
+        }
+    }
+
+    /**
+     * Import a catalog, inserting books with new ISBNs and updating the books whose ISBN exists.
+     *
+     * CSV input needs a header row with at least the isbn and title columns. NDJSON input has
+     * one JSON object per line. Of several rows with the same ISBN the last one wins.
+     *
+     * @param format the input format
+     * @param inputStream the catalog (not closed by this method)
+     * @return the import summary, including the first rejected rows
+     * @throws IOException if reading the input fails
+     * @throws InvalidImportFileException if the input cannot be processed at all
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public BookImportResult importCatalog(Format format, InputStream inputStream) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        log.info("Starting {} catalog import", format);
+
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + IMPORT_LOCK_KEY + ")");
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+
+        ImportProgress progress = new ImportProgress();
+        BufferedReader input = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Writer copy = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_STAGING_ROWS, BUFFER_SIZE),
+                StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            if (format == Format.CSV) {
+                stageCsv(input, copy, progress);
+            } else {
+                stageNdjson(input, copy, progress);
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("COPY book_import_staging", COPY_STAGING_ROWS, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        log.info("Catalog import staged {} of {} rows ({} rejected)",
+                progress.rowsStaged, progress.rowsRead, progress.rowsRejected);
+
+        LocalDateTime now = LocalDateTime.now();
+        long duplicateRows = jdbcTemplate.update(DELETE_DUPLICATE_ROWS);
+        jdbcTemplate.execute("ANALYZE book_import_staging");
+        long booksUpdated = jdbcTemplate.update(UPDATE_EXISTING_BOOKS, now);
+        long booksInserted = jdbcTemplate.update(INSERT_NEW_BOOKS, now, now);
+        jdbcTemplate.execute(CREATE_CATEGORY_NAMES_TABLE);
+        long categoriesCreated = jdbcTemplate.update(INSERT_NEW_CATEGORIES, now, now);
+        long categoryLinksAdded = jdbcTemplate.update(INSERT_CATEGORY_LINKS);
+
+        if (booksInserted > 0 || booksUpdated > 0 || categoryLinksAdded > 0) {
+            eventPublisher.publishEvent(new CatalogImportedEvent(booksInserted, booksUpdated));
+        }
+
+        long durationMillis = System.currentTimeMillis() - startedAt;
+        log.info("Finished {} catalog import in {} ms: {} books inserted, {} updated, {} duplicate rows, "
+                + "{} categories created, {} category links added",
+                format, durationMillis, booksInserted, booksUpdated, duplicateRows, categoriesCreated, categoryLinksAdded);
+
+        return BookImportResult.builder()
+                .format(format.name().toLowerCase(Locale.ROOT))
+                .rowsRead(progress.rowsRead)
+                .rowsStaged(progress.rowsStaged)
+                .rowsRejected(progress.rowsRejected)
+                .duplicateRows(duplicateRows)
+                .booksInserted(booksInserted)
+                .booksUpdated(booksUpdated)
+                .categoriesCreated(categoriesCreated)
+                .categoryLinksAdded(categoryLinksAdded)
+                .durationMillis(durationMillis)
+                .rejects(progress.rejects)
+                .rejectsTruncated(progress.rowsRejected > progress.rejects.size())
+                .build();
+    }
+
+    private void stageCsv(BufferedReader input, Writer copy, ImportProgress progress) throws IOException {
+        CsvReader csv = new CsvReader(input);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        Column[] columns = new Column[header.size()];
+        boolean hasIsbn = false;
+        boolean hasTitle = false;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Column.fromName(header.get(i));
+            hasIsbn |= columns[i] == Column.ISBN;
+            hasTitle |= columns[i] == Column.TITLE;
+        }
+        if (!hasIsbn || !hasTitle) {
+            throw new InvalidImportFileException("The CSV header must contain the columns isbn and title");
+        }
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            progress.rowRead();
+            if (record.size() > columns.length) {
+                progress.reject(csv.getRecordLine(), null,
+                        "Expected at most " + columns.length + " fields but found " + record.size());
+                continue;
+            }
+            Map<Column, String> values = new EnumMap<>(Column.class);
+            for (int i = 0; i < record.size(); i++) {
+                if (columns[i] != null) {
+                    values.put(columns[i], record.get(i));
+                }
+            }
+            stage(csv.getRecordLine(), values, copy, progress);
+        }
+    }
+
+    private void stageNdjson(BufferedReader input, Writer copy, ImportProgress progress) throws IOException {
+        long line = 0;
+        String text;
+        while ((text = input.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            progress.rowRead();
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                progress.reject(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                progress.reject(line, null, "Expected a JSON object");
+                continue;
+            }
+            Map<Column, String> values = new EnumMap<>(Column.class);
+            for (Map.Entry<String, JsonNode> entry : node.properties()) {
+                Column column = Column.fromName(entry.getKey());
+                if (column != null) {
+                    values.put(column, jsonText(entry.getValue()));
+                }
+            }
+            stage(line, values, copy, progress);
+        }
+    }
+
+    private static String jsonText(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isArray()) {
+            List<String> elements = new ArrayList<>();
+            value.forEach(element -> elements.add(element.asText()));
+            return String.join(CATEGORY_SEPARATOR, elements);
+        }
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    // Validate one row and write it to the COPY stream, or record it as a reject
+    private void stage(long line, Map<Column, String> values, Writer copy, ImportProgress progress) throws IOException {
+        Column[] columns = Column.values();
+        String[] row = new String[columns.length];
+        for (Column column : columns) {
+            String value = values.get(column);
+            if (value != null) {
+                value = value.trim();
+            }
+            row[column.ordinal()] = value == null || value.isEmpty() ? null : value;
+        }
+
+        String reason = validate(row);
+        if (reason != null) {
+            progress.reject(line, row[Column.ISBN.ordinal()], reason);
+            return;
+        }
+
+        copy.write(Long.toString(line));
+        for (String value : row) {
+            copy.write(',');
+            if (value != null) {
+                // Quoted, so that an empty string is not read as NULL
+                copy.write('"');
+                copy.write(value.replace("\"", "\"\""));
+                copy.write('"');
+            }
+        }
+        copy.write('\n');
+        progress.rowsStaged++;
+    }
+
+    // Returns the reject reason, or null if the row is valid; numbers and booleans are normalized in place
+    private static String validate(String[] row) {
+        for (Column column : Column.values()) {
+            String value = row[column.ordinal()];
+            if (value == null) {
+                if (column.required) {
+                    return column.key + " is required";
+                }
+                continue;
+            }
+            switch (column.type) {
+                case TEXT -> {
+                    if (column.maxLength > 0 && value.length() > column.maxLength) {
+                        return column.key + " is longer than " + column.maxLength + " characters";
+                    }
+                }
+                case INTEGER -> {
+                    try {
+                        int number = Integer.parseInt(value);
+                        if (number < 0) {
+                            return column.key + " must not be negative";
+                        }
+                        row[column.ordinal()] = Integer.toString(number);
+                    } catch (NumberFormatException e) {
+                        return column.key + " is not a whole number: " + value;
+                    }
+                }
+                case DECIMAL -> {
+                    try {
+                        double number = Double.parseDouble(value);
+                        if (number < 0 || Double.isNaN(number) || Double.isInfinite(number)) {
+                            return column.key + " must be a non-negative number";
+                        }
+                        row[column.ordinal()] = Double.toString(number);
+                    } catch (NumberFormatException e) {
+                        return column.key + " is not a number: " + value;
+                    }
+                }
+                case BOOLEAN -> {
+                    Boolean flag = parseBoolean(value);
+                    if (flag == null) {
+                        return column.key + " is not a boolean: " + value;
+                    }
+                    row[column.ordinal()] = flag.toString();
+                }
+            }
+        }
+
+        String categories = row[Column.CATEGORIES.ordinal()];
+        if (categories != null) {
+            for (String name : categories.split("\\" + CATEGORY_SEPARATOR)) {
+                if (name.trim().length() > MAX_CATEGORY_NAME_LENGTH) {
+                    return "category name is longer than " + MAX_CATEGORY_NAME_LENGTH + " characters";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "t", "yes", "y", "1":
+                return Boolean.TRUE;
+            case "false", "f", "no", "n", "0":
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+}
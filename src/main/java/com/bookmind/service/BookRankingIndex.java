@@ -0,0 +1,352 @@
+package com.bookmind.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bookmind.event.BookCategoriesChangedEvent;
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.BookSnapshot;
+import com.bookmind.event.CatalogImportedEvent;
+import com.bookmind.model.Book;
+import com.bookmind.repository.BookRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory rating rankings of the whole catalog, of every genre, of every category and of
+ * every genre within a category.
+ *
+ * Each ranking is a sorted set ordered by average rating, then number of ratings, then ID,
+ * so the top K books of any ranking are read by iterating its first K entries, with no
+ * scan and no sort. A rating or genre change moves the book within its rankings from
+ * BookChangedEvents; category links are reloaded for the books named by a
+ * BookCategoriesChangedEvent. The rankings are built once at startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookRankingIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private static final Comparator<RankedBook> BEST_FIRST = Comparator
+            .comparingDouble(RankedBook::averageRating).reversed()
+            .thenComparing(Comparator.comparingInt(RankedBook::ratingCount).reversed())
+            .thenComparingLong(RankedBook::id);
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Rankings data = new Rankings();
+    // Changes applied while a rebuild reads the catalog, replayed onto the rebuilt rankings; null otherwise
+    private List<Consumer<Rankings>> pendingChanges;
+    private volatile boolean ready = false;
+
+    /**
+     * Ranking key of a book; genre is the lower-cased genre, null if the book has none.
+     */
+    private record RankedBook(long id, double averageRating, int ratingCount, String genre) {
+    }
+
+    private record CategoryGenre(long categoryId, String genre) {
+    }
+
+    /**
+     * The ranking structures. A rebuild fills a fresh instance and swaps it in, so reads
+     * keep using the previous one until the new one is complete.
+     */
+    private static final class Rankings {
+        private final Map<Long, RankedBook> booksById = new HashMap<>();
+        private final Map<Long, Set<Long>> categoriesById = new HashMap<>();
+        private final NavigableSet<RankedBook> overall = new TreeSet<>(BEST_FIRST);
+        private final Map<String, NavigableSet<RankedBook>> byGenre = new HashMap<>();
+        private final Map<Long, NavigableSet<RankedBook>> byCategory = new HashMap<>();
+        private final Map<CategoryGenre, NavigableSet<RankedBook>> byCategoryAndGenre = new HashMap<>();
+
+        private void index(RankedBook ranked) {
+            RankedBook previous = booksById.put(ranked.id(), ranked);
+            if (ranked.equals(previous)) {
+                return;
+            }
+            Set<Long> categories = categoriesById.getOrDefault(ranked.id(), Set.of());
+            if (previous != null) {
+                unrank(previous, categories);
+            }
+            overall.add(ranked);
+            if (ranked.genre() != null) {
+                byGenre.computeIfAbsent(ranked.genre(), g -> new TreeSet<>(BEST_FIRST)).add(ranked);
+            }
+            for (Long categoryId : categories) {
+                addToCategory(categoryId, ranked);
+            }
+        }
+
+        private void remove(Long bookId) {
+            RankedBook previous = booksById.remove(bookId);
+            Set<Long> categories = categoriesById.remove(bookId);
+            if (previous != null) {
+                unrank(previous, categories == null ? Set.of() : categories);
+            }
+        }
+
+        private void setCategories(Long bookId, Set<Long> categories) {
+            RankedBook book = booksById.get(bookId);
+            Set<Long> previous = categoriesById.getOrDefault(bookId, Set.of());
+            if (book != null) {
+                for (Long categoryId : previous) {
+                    if (!categories.contains(categoryId)) {
+                        removeFromCategory(categoryId, book);
+                    }
+                }
+                for (Long categoryId : categories) {
+                    if (!previous.contains(categoryId)) {
+                        addToCategory(categoryId, book);
+                    }
+                }
+            }
+            if (categories.isEmpty()) {
+                categoriesById.remove(bookId);
+            } else {
+                categoriesById.put(bookId, categories);
+            }
+        }
+
+        private void unrank(RankedBook book, Set<Long> categories) {
+            overall.remove(book);
+            if (book.genre() != null) {
+                removeFrom(byGenre, book.genre(), book);
+            }
+            for (Long categoryId : categories) {
+                removeFromCategory(categoryId, book);
+            }
+        }
+
+        private void addToCategory(Long categoryId, RankedBook book) {
+            byCategory.computeIfAbsent(categoryId, c -> new TreeSet<>(BEST_FIRST)).add(book);
+            if (book.genre() != null) {
+                byCategoryAndGenre.computeIfAbsent(new CategoryGenre(categoryId, book.genre()),
+                        key -> new TreeSet<>(BEST_FIRST)).add(book);
+            }
+        }
+
+        private void removeFromCategory(Long categoryId, RankedBook book) {
+            removeFrom(byCategory, categoryId, book);
+            if (book.genre() != null) {
+                removeFrom(byCategoryAndGenre, new CategoryGenre(categoryId, book.genre()), book);
+            }
+        }
+    }
+
+    /**
+     * Build the rankings from the books table once the application has started, and again
+     * after a bulk import. Books are read in ID-ordered keyset batches into fresh rankings,
+     * which replace the live ones once complete; changes committed meanwhile are replayed onto them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        log.info("Building book rankings");
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Rankings rebuilt = new Rankings();
+        boolean complete = false;
+        try {
+            long afterId = 0;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                for (Book book : batch) {
+                    rebuilt.index(rankedBook(BookSnapshot.of(book)));
+                    afterId = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            Map<Long, Set<Long>> links = new HashMap<>();
+            bookRepository.findAllCategoryLinks().forEach(link ->
+                    links.computeIfAbsent(link.getBookId(), id -> new HashSet<>()).add(link.getCategoryId()));
+            links.forEach(rebuilt::setCategories);
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    // A batch read before a change committed may hold the older state of the book
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    data = rebuilt;
+                }
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        ready = true;
+        log.info("Book rankings built with {} books in {} genres and {} categories",
+                rebuilt.booksById.size(), rebuilt.byGenre.size(), rebuilt.byCategory.size());
+    }
+
+    /**
+     * @return true once the startup build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuild the rankings after a committed bulk catalog import, which publishes no per-book events.
+     * Runs on the task executor, off the import request; the current rankings answer until the new ones are ready.
+     *
+     * @param event the import published by BookImportService
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Move a book within its rankings after a committed write.
+     *
+     * @param event the book change published by BookService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getAfter() == null) {
+            remove(event.getBookId());
+        } else {
+            index(event.getAfter());
+        }
+    }
+
+    /**
+     * Reload the category links of books whose categories changed.
+     *
+     * @param event the category change published by BookService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriesChanged(BookCategoriesChangedEvent event) {
+        List<Long> bookIds = event.getBookIds();
+        for (int from = 0; from < bookIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = bookIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, bookIds.size()));
+            Map<Long, Set<Long>> links = new HashMap<>();
+            chunk.forEach(id -> links.put(id, new HashSet<>()));
+            bookRepository.findCategoryLinks(chunk).forEach(link ->
+                    links.get(link.getBookId()).add(link.getCategoryId()));
+
+            apply(rankings -> links.forEach(rankings::setCategories));
+        }
+    }
+
+    /**
+     * Add a book to its rankings or move it after a rating or genre change.
+     *
+     * @param book the book to rank, ignored if null or not yet persisted
+     */
+    public void index(BookSnapshot book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        RankedBook ranked = rankedBook(book);
+        apply(rankings -> rankings.index(ranked));
+    }
+
+    /**
+     * Remove a book from all rankings.
+     *
+     * @param bookId ID of the book to remove
+     */
+    public void remove(Long bookId) {
+        apply(rankings -> rankings.remove(bookId));
+    }
+
+    /**
+     * IDs of the best rated books, optionally restricted to a genre or a category.
+     *
+     * @param genre Optional genre, matched case-insensitively
+     * @param categoryId Optional category ID; combined with genre if both are given
+     * @param limit Maximum number of IDs to return
+     * @return Book IDs, best rated first
+     */
+    public List<Long> top(String genre, Long categoryId, int limit) {
+        lock.readLock().lock();
+        try {
+            Rankings rankings = data;
+            NavigableSet<RankedBook> ranking = rankings.overall;
+            String genreKey = genre == null ? null : genre.trim().toLowerCase(Locale.ROOT);
+            if (categoryId != null && genreKey != null) {
+                ranking = rankings.byCategoryAndGenre.getOrDefault(
+                        new CategoryGenre(categoryId, genreKey), new TreeSet<>(BEST_FIRST));
+            } else if (categoryId != null) {
+                ranking = rankings.byCategory.getOrDefault(categoryId, new TreeSet<>(BEST_FIRST));
+            } else if (genreKey != null) {
+                ranking = rankings.byGenre.getOrDefault(genreKey, new TreeSet<>(BEST_FIRST));
+            }
+
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (RankedBook book : ranking) {
+                if (ids.size() >= limit) {
+                    break;
+                }
+                ids.add(book.id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Apply a change to the live rankings, recording it for replay while a rebuild reads the catalog
+    private void apply(Consumer<Rankings> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(data);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static RankedBook rankedBook(BookSnapshot book) {
+        String genre = book.getGenre() == null || book.getGenre().isBlank()
+                ? null
+                : book.getGenre().trim().toLowerCase(Locale.ROOT);
+        return new RankedBook(book.getId(), book.getAverageRating(), book.getRatingCount(), genre);
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableSet<RankedBook>> rankings, K key, RankedBook book) {
+        NavigableSet<RankedBook> ranking = rankings.get(key);
+        if (ranking != null) {
+            ranking.remove(book);
+            if (ranking.isEmpty()) {
+                rankings.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.bookmind.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.BookSnapshot;
+import com.bookmind.event.CatalogImportedEvent;
+import com.bookmind.model.Book;
+import com.bookmind.repository.BookRepository;
+import com.bookmind.utility.BkTree;
+import com.bookmind.utility.TextNormalizer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index over book title, author, genre and description.
+ *
+ * Documents are ranked with BM25F: per-field term frequencies are length-normalized
+ * against the field's average length, boosted, summed and then saturated with the
+ * usual BM25 k1 curve. The index is built once at startup and kept current from
+ * BookChangedEvents, so ranked searches never touch the books table
+ * until the winning ids are hydrated.
+ *
+ * The title and author vocabulary is also kept in a BK-tree, so misspelled query terms
+ * can be corrected to indexed terms within a small edit distance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int MAX_CORRECTIONS = 3;
+    // Removed terms stay in the BK-tree until it holds this many more terms than twice the vocabulary
+    private static final int STALE_TERM_SLACK = 1000;
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+    // Changes applied while a rebuild reads the catalog, replayed onto the rebuilt index; null otherwise
+    private List<Consumer<IndexData>> pendingChanges;
+    private volatile boolean ready = false;
+
+    /**
+     * Indexed book fields with their BM25F boost.
+     */
+    public enum Field {
+        TITLE(3.0),
+        AUTHOR(2.0),
+        GENRE(1.5),
+        DESCRIPTION(1.0);
+
+        private final double boost;
+
+        Field(double boost) {
+            this.boost = boost;
+        }
+    }
+
+    private record IndexedDocument(Set<String> terms, int[] fieldLengths) {
+    }
+
+    /**
+     * Term frequencies of one book, computed before the write lock is taken.
+     */
+    private record TokenizedBook(Long bookId, Map<String, int[]> termFrequencies, int[] fieldLengths) {
+    }
+
+    /**
+     * The index structures. A rebuild fills a fresh instance and swaps it in, so searches
+     * keep using the previous one until the new one is complete.
+     */
+    private static final class IndexData {
+        // term -> (book ID -> term frequency per field, indexed by Field.ordinal())
+        private final Map<String, Map<Long, int[]>> postings = new HashMap<>();
+        private final Map<Long, IndexedDocument> documents = new HashMap<>();
+        private final long[] totalFieldLengths = new long[Field.values().length];
+        // title/author term -> number of books with the term in their title or author
+        private final Map<String, Integer> nameTermCounts = new HashMap<>();
+        private BkTree nameTerms = new BkTree();
+
+        private void index(TokenizedBook book) {
+            remove(book.bookId());
+            book.termFrequencies().forEach((term, frequencies) -> {
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(book.bookId(), frequencies);
+                if (isNameTerm(frequencies) && nameTermCounts.merge(term, 1, Integer::sum) == 1) {
+                    nameTerms.add(term);
+                }
+            });
+            for (int i = 0; i < book.fieldLengths().length; i++) {
+                totalFieldLengths[i] += book.fieldLengths()[i];
+            }
+            documents.put(book.bookId(), new IndexedDocument(book.termFrequencies().keySet(), book.fieldLengths()));
+        }
+
+        private void remove(Long bookId) {
+            IndexedDocument document = documents.remove(bookId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                Map<Long, int[]> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    int[] frequencies = termPostings.remove(bookId);
+                    if (termPostings.isEmpty()) {
+                        postings.remove(term);
+                    }
+                    if (frequencies != null && isNameTerm(frequencies)) {
+                        nameTermCounts.computeIfPresent(term, (t, count) -> count > 1 ? count - 1 : null);
+                    }
+                }
+            }
+            for (int i = 0; i < totalFieldLengths.length; i++) {
+                totalFieldLengths[i] -= document.fieldLengths()[i];
+            }
+            if (nameTerms.size() > 2 * nameTermCounts.size() + STALE_TERM_SLACK) {
+                nameTerms = new BkTree();
+                nameTermCounts.keySet().forEach(nameTerms::add);
+            }
+        }
+    }
+
+    /**
+     * Build the index from the books table once the application has started, and again after
+     * a bulk import. Books are read in ID-ordered keyset batches into a fresh index, which
+     * replaces the live one once complete; book changes committed meanwhile are replayed onto it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        log.info("Building book search index");
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData rebuilt = new IndexData();
+        boolean complete = false;
+        try {
+            long afterId = 0;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                for (Book book : batch) {
+                    rebuilt.index(tokenize(book.getId(), fieldValues(BookSnapshot.of(book))));
+                    afterId = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    // A batch read before a change committed may hold the older state of the book
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    data = rebuilt;
+                }
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        ready = true;
+        log.info("Book search index built with {} books and {} terms", rebuilt.documents.size(), rebuilt.postings.size());
+    }
+
+    /**
+     * @return true once the startup build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuild the index after a committed bulk catalog import, which publishes no per-book events.
+     * Nothing to do before the startup build has run: it will read the imported books.
+     * Runs asynchronously so the import request does not wait for it; searches use the current index meanwhile.
+     *
+     * @param event the import published by BookImportService
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Add or replace a book in the index.
+     *
+     * @param book the book to index, ignored if null or not yet persisted
+     */
+    public void index(BookSnapshot book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        TokenizedBook tokenized = tokenize(book.getId(), fieldValues(book));
+        apply(index -> index.index(tokenized));
+    }
+
+    /**
+     * Keep the index in step with committed book writes.
+     *
+     * @param event the book change published by BookService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getAfter() == null) {
+            remove(event.getBookId());
+        } else {
+            index(event.getAfter());
+        }
+    }
+
+    /**
+     * Remove a book from the index.
+     *
+     * @param bookId ID of the book to remove
+     */
+    public void remove(Long bookId) {
+        apply(index -> index.remove(bookId));
+    }
+
+    // Apply a change to the live index, recording it for replay while a rebuild reads the catalog
+    private void apply(Consumer<IndexData> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(data);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<Field, String> fieldValues(BookSnapshot book) {
+        Map<Field, String> values = new EnumMap<>(Field.class);
+        values.put(Field.TITLE, book.getTitle());
+        values.put(Field.AUTHOR, book.getAuthor());
+        values.put(Field.GENRE, book.getGenre());
+        values.put(Field.DESCRIPTION, book.getDescription());
+        return values;
+    }
+
+    private static TokenizedBook tokenize(Long bookId, Map<Field, String> values) {
+        Map<String, int[]> termFrequencies = new HashMap<>();
+        int[] fieldLengths = new int[Field.values().length];
+        values.forEach((field, value) -> {
+            List<String> terms = TextNormalizer.tokenize(value);
+            fieldLengths[field.ordinal()] = terms.size();
+            for (String term : terms) {
+                termFrequencies.computeIfAbsent(term, t -> new int[Field.values().length])[field.ordinal()]++;
+            }
+        });
+        return new TokenizedBook(bookId, termFrequencies, fieldLengths);
+    }
+
+    private static boolean isNameTerm(int[] frequencies) {
+        return frequencies[Field.TITLE.ordinal()] > 0 || frequencies[Field.AUTHOR.ordinal()] > 0;
+    }
+
+    /**
+     * Spelling corrections for the terms of a title or author query.
+     *
+     * Terms that occur in some title or author are left alone. Other terms are matched against
+     * that vocabulary within one edit (terms of 4-5 characters) or two edits (6 or more);
+     * shorter terms are not corrected.
+     *
+     * @param text the query text
+     * @return misspelled term -> up to MAX_CORRECTIONS candidates, closest and most frequent first;
+     *         a term without candidates maps to an empty list
+     */
+    public Map<String, List<String>> suggestCorrections(String text) {
+        Map<String, List<String>> corrections = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> nameTermCounts = data.nameTermCounts;
+            for (String term : TextNormalizer.tokenize(text)) {
+                if (nameTermCounts.containsKey(term) || corrections.containsKey(term)) {
+                    continue;
+                }
+                int maxEdits = term.length() <= 3 ? 0 : term.length() <= 5 ? 1 : 2;
+                if (maxEdits == 0) {
+                    corrections.put(term, List.of());
+                    continue;
+                }
+                List<String> candidates = data.nameTerms.search(term, maxEdits).stream()
+                        // The tree may still hold terms of removed books
+                        .filter(match -> nameTermCounts.containsKey(match.term()))
+                        .sorted((a, b) -> a.distance() != b.distance()
+                                ? Integer.compare(a.distance(), b.distance())
+                                : Integer.compare(nameTermCounts.get(b.term()), nameTermCounts.get(a.term())))
+                        .limit(MAX_CORRECTIONS)
+                        .map(BkTree.Match::term)
+                        .toList();
+                corrections.put(term, candidates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return corrections;
+    }
+
+    /**
+     * Ranked search over the index.
+     *
+     * Every term of a field query must occur in that field (mirroring the AND semantics of the
+     * SQL search), while free-text terms may match any field and only contribute to the score.
+     *
+     * @param query Optional free-text query matched against all fields
+     * @param fieldQueries Optional per-field queries that restrict the result set
+     * @param limit Maximum number of IDs to return
+     * @return Book IDs ordered by descending BM25F score
+     */
+    public List<Long> search(String query, Map<Field, String> fieldQueries, int limit) {
+        List<String> scoringTerms = new ArrayList<>(TextNormalizer.tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            Map<String, Map<Long, int[]>> postings = data.postings;
+            Map<Long, IndexedDocument> documents = data.documents;
+            long[] totalFieldLengths = data.totalFieldLengths;
+            Set<Long> candidates = null;
+            for (Map.Entry<Field, String> entry : fieldQueries.entrySet()) {
+                int ordinal = entry.getKey().ordinal();
+                for (String term : TextNormalizer.tokenize(entry.getValue())) {
+                    scoringTerms.add(term);
+                    Set<Long> matching = new HashSet<>();
+                    postings.getOrDefault(term, Map.of()).forEach((bookId, frequencies) -> {
+                        if (frequencies[ordinal] > 0) {
+                            matching.add(bookId);
+                        }
+                    });
+                    if (candidates == null) {
+                        candidates = matching;
+                    } else {
+                        candidates.retainAll(matching);
+                    }
+                }
+            }
+
+            if (scoringTerms.isEmpty() || (candidates != null && candidates.isEmpty())) {
+                return List.of();
+            }
+
+            double[] averageFieldLengths = new double[totalFieldLengths.length];
+            for (int i = 0; i < totalFieldLengths.length; i++) {
+                averageFieldLengths[i] = documents.isEmpty() ? 0 : (double) totalFieldLengths[i] / documents.size();
+            }
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : new HashSet<>(scoringTerms)) {
+                Map<Long, int[]> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents.size() - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                for (Map.Entry<Long, int[]> posting : termPostings.entrySet()) {
+                    if (candidates != null && !candidates.contains(posting.getKey())) {
+                        continue;
+                    }
+                    double weightedFrequency = weightedFrequency(
+                            posting.getValue(), documents.get(posting.getKey()).fieldLengths(), averageFieldLengths);
+                    double termScore = idf * weightedFrequency * (K1 + 1) / (weightedFrequency + K1);
+                    scores.merge(posting.getKey(), termScore, Double::sum);
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.<Long, Double>comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25F pseudo term frequency: boosted, per-field length-normalized frequencies summed across fields.
+     */
+    private double weightedFrequency(int[] frequencies, int[] fieldLengths, double[] averageFieldLengths) {
+        double weighted = 0;
+        for (Field field : Field.values()) {
+            int i = field.ordinal();
+            if (frequencies[i] == 0) {
+                continue;
+            }
+            double lengthRatio = averageFieldLengths[i] > 0 ? fieldLengths[i] / averageFieldLengths[i] : 1;
+            weighted += field.boost * frequencies[i] / (1 - B + B * lengthRatio);
+        }
+        return weighted;
+    }
+}
@@ -1,19 +1,49 @@
 package com.bookmind.service;
 
+import com.bookmind.dto.BookDetail;
+import com.bookmind.dto.BookListItem;
+import com.bookmind.dto.BookSuggestion;
+import com.bookmind.dto.CategoryAssignmentResult;
+import com.bookmind.dto.CategorySummaryDto;
+import com.bookmind.dto.CursorPage;
+import com.bookmind.dto.FacetedSearchResponse;
+import com.bookmind.dto.FuzzySearchResponse;
+import com.bookmind.dto.RatingSummary;
+import com.bookmind.dto.ReviewDto;
+import com.bookmind.event.BookCategoriesChangedEvent;
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.BookSnapshot;
+import com.bookmind.mapper.BookMapper;
 import com.bookmind.model.Book;
-import com.bookmind.model.Category;
 
 import com.bookmind.model.Review;
+import com.bookmind.exception.BookVersionConflictException;
+import com.bookmind.exception.InvalidBookUpdateException;
+import com.bookmind.exception.InvalidCategoryAssignmentException;
+import com.bookmind.exception.InvalidSearchQueryException;
+import com.bookmind.exception.PreconditionFailedException;
+import com.bookmind.repository.BookListQueries;
+import com.bookmind.repository.BookQueryParser;
 import com.bookmind.repository.BookRepository;
+import com.bookmind.repository.BookSpecifications;
 import com.bookmind.repository.CategoryRepository;
 import com.bookmind.repository.ReviewRepository;
+import com.bookmind.utility.CursorCodec;
+import com.bookmind.utility.FieldSelection;
+import com.bookmind.utility.ResourceVersion;
+import com.bookmind.utility.TextNormalizer;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
@@ -23,48 +53,257 @@ public class BookService {
     private final BookRepository bookRepository;
     private final CategoryRepository categoryRepository;
     private final ReviewRepository reviewRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final BookSuggestIndex bookSuggestIndex;
+    private final BookRankingIndex bookRankingIndex;
+    private final SearchCountCache searchCountCache;
+    private final CatalogStatistics catalogStatistics;
+    private final BookCache bookCache;
+    private final CursorCodec cursorCodec;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    // Upper bound for ID lists bound into one IN (...) clause
+    private static final int MAX_IDS_PER_STATEMENT = 1000;
+    // sortBy value -> Book attribute; every attribute has an (attribute, id) index from
+    // db/migration/V5__book_sort_indexes.sql, so a keyset page is an index range scan
+    private static final Map<String, String> SORTABLE_FIELDS = new TreeMap<>(Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("title", "title"),
+            Map.entry("author", "author"),
+            Map.entry("genre", "genre"),
+            Map.entry("price", "price"),
+            Map.entry("averageRating", "averageRating"),
+            Map.entry("rating", "averageRating"),
+            Map.entry("publicationYear", "publicationYear"),
+            Map.entry("year", "publicationYear"),
+            Map.entry("pages", "pages"),
+            Map.entry("createdAt", "createdAt")));
 
     /**
-     * Get all the Books from the database.
-     * @return List of all Books
+     * Get all the Books from the database as compact list items.
+     * @return List of all Books ordered by ID
      */
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    public List<BookListItem> getAllBooks() {
+        return bookRepository.findAllListItems();
     }
 
     /**
-     * Get a Book by its ID.
+     * Get a Book by its ID, served from the BookCache.
+     * The returned Book is shared and must not be modified.
      * @param id ID of the Book
      * @return Book object
      * @throws RuntimeException if the Book is not found
      */
     public Book getBookById(Long id) {
+        return bookCache.get(id)
+                .orElseThrow(() -> new RuntimeException("Book not found with ID: " + id));
+    }
+
+    /**
+     * Get many Books by ID as compact list items, e.g. to render a cart or wishlist.
+     * Duplicate IDs are returned once; IDs of missing Books are skipped.
+     * @param ids IDs of the Books
+     * @return list items in the order of the first occurrence of each ID
+     */
+    public List<BookListItem> getBooksByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<BookListItem> books = new ArrayList<>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += MAX_IDS_PER_STATEMENT) {
+            books.addAll(findAllByIdInOrder(
+                    distinctIds.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, distinctIds.size()))));
+        }
+        return books;
+    }
+
+    /**
+     * Load a Book from the database, bypassing the cache, for modification.
+     * @param id ID of the Book
+     * @return Book object
+     * @throws RuntimeException if the Book is not found
+     */
+    private Book loadBook(Long id) {
         return bookRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Book not found with ID: " + id));
     }
 
+    /**
+     * Get the detail view of a Book by its ID.
+     * Loaded with two queries: the scalar columns and the category summaries.
+     * With a sparse fieldset only the selected columns are read, and the category
+     * summaries only if categories are selected.
+     * @param id ID of the Book
+     * @param fields Selected fields of the detail view
+     * @return BookDetail object; properties that were not selected are null or zero
+     * @throws RuntimeException if the Book is not found
+     */
+    public BookDetail getBookDetail(Long id, FieldSelection fields) {
+        Optional<BookDetail> found = fields.isAll()
+                ? bookRepository.findDetailById(id)
+                : bookRepository.findDetailFieldsById(id, fields.columns(BookListQueries.DETAIL_FIELDS, Set.of()));
+        BookDetail detail = found.orElseThrow(() -> new RuntimeException("Book not found with ID: " + id));
+        if (fields.includes("categories")) {
+            detail.setCategories(bookRepository.findCategorySummaries(id));
+        }
+        return detail;
+    }
+
+    /**
+     * Get the version of a Book for conditional GETs, without loading the Book.
+     * @param id ID of the Book
+     * @return the Book's validators, or empty if the Book does not exist or has no timestamp
+     */
+    public Optional<ResourceVersion> getBookVersion(Long id) {
+        return bookRepository.findUpdatedAtById(id)
+                .map(updatedAt -> bookVersion(id, updatedAt));
+    }
+
+    private static ResourceVersion bookVersion(Long id, LocalDateTime updatedAt) {
+        return ResourceVersion.of(updatedAt, "book", id, updatedAt);
+    }
+
+    /**
+     * Get the version of a page of list items for conditional GETs.
+     * @param page Page of list items
+     * @param extraParts other values in the response body, such as a search total
+     * @return the page's validators
+     */
+    public ResourceVersion getPageVersion(CursorPage<BookListItem> page, Object... extraParts) {
+        List<Object> parts = new ArrayList<>();
+        LocalDateTime lastModified = null;
+        for (BookListItem item : page.getContent()) {
+            parts.add(item.getId());
+            parts.add(item.getUpdatedAt());
+            lastModified = ResourceVersion.latest(lastModified, item.getUpdatedAt());
+        }
+        parts.add(page.isHasNext());
+        parts.add(page.getNextCursor());
+        parts.addAll(Arrays.asList(extraParts));
+        return ResourceVersion.of(lastModified, parts.toArray());
+    }
+
+    /**
+     * Get the categories of a Book.
+     * @param id ID of the Book
+     * @return List of category summaries ordered by name
+     * @throws RuntimeException if the Book is not found
+     */
+    public List<CategorySummaryDto> getBookCategories(Long id) {
+        if (!bookRepository.existsById(id)) {
+            throw new RuntimeException("Book not found with ID: " + id);
+        }
+        return bookRepository.findCategorySummaries(id);
+    }
+
+    /**
+     * Get the reviews of a Book.
+     * @param id ID of the Book
+     * @return List of reviews, newest first
+     * @throws RuntimeException if the Book is not found
+     */
+    public List<ReviewDto> getBookReviews(Long id) {
+        if (!bookRepository.existsById(id)) {
+            throw new RuntimeException("Book not found with ID: " + id);
+        }
+        return reviewRepository.findReviewDtosByBookId(id);
+    }
+
     /**
      * Save a new Book to the database.
      * @param book Book object to be saved
      * @return Saved Book object
      */
     public Book addBook(Book book) {
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(BookSnapshot.of(savedBook)));
+        return savedBook;
     }
 
     /**
      * Update an existing Book in the database.
+     * With an If-Match header the update only applies to the version of the Book the client
+     * read: the tag is checked against the loaded Book, whose version then guards the UPDATE.
      * @param id ID of the Book to be updated
      * @param book Updated Book object
+     * @param ifMatch If-Match header (ETags from GET /books/{id}), or null to update unconditionally
      * @return Updated Book object
      * @throws RuntimeException if the Book is not found
+     * @throws PreconditionFailedException if the Book no longer matches the If-Match header
      */
-    public Book updateBook(Long id, Book book) {
-        if (!bookRepository.existsById(id)) {
-            throw new RuntimeException("Book not found with ID: " + id);
+    public Book updateBook(Long id, Book book, String ifMatch) {
+        Book existingBook = loadBook(id);
+        if (ifMatch != null && !bookVersion(id, existingBook.getUpdatedAt()).matches(ifMatch)) {
+            throw new PreconditionFailedException("Book with ID " + id
+                    + " was modified since it was read. Reload the book and retry.");
         }
+        BookSnapshot before = BookSnapshot.of(existingBook);
         book.setId(id); // Ensure the ID is set for the update
-        return bookRepository.save(book);
+        book.copyRatingsFrom(existingBook); // Ratings are derived from the reviews
+        // Not part of the request body; save() fails if the Book changed since it was loaded
+        book.setVersion(existingBook.getVersion());
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.updated(before, BookSnapshot.of(savedBook)));
+        return savedBook;
+    }
+
+    /**
+     * Partially update an existing Book; only the supplied fields are changed.
+     * Field names are matched case-insensitively, unknown fields are ignored.
+     * The Book stays managed until commit, so Hibernate flushes one UPDATE that sets only the
+     * changed columns and is guarded by the version column. If the updates contain a "version"
+     * (matched case-insensitively too), the update is rejected unless it is still the Book's current version.
+     * @param id ID of the Book to be updated
+     * @param updates Map of field name to new value, optionally with the expected "version"
+     * @return Updated Book object
+     * @throws RuntimeException if the Book is not found
+     * @throws BookVersionConflictException if the Book is no longer at the expected version
+     * @throws InvalidBookUpdateException if the version is not a whole number
+     */
+    @Transactional
+    public Book partialUpdateBook(Long id, Map<String, Object> updates) {
+        Book existingBook = loadBook(id);
+        Long expectedVersion = expectedVersion(updates);
+        if (expectedVersion != null && expectedVersion != existingBook.getVersion()) {
+            throw new BookVersionConflictException(id, expectedVersion, existingBook.getVersion());
+        }
+        BookSnapshot before = BookSnapshot.of(existingBook);
+
+        updates.forEach((key, value) -> {
+            switch (key.toLowerCase()) {
+                case "title" -> existingBook.setTitle((String) value);
+                case "author" -> existingBook.setAuthor((String) value);
+                case "description" -> existingBook.setDescription((String) value);
+                case "genre" -> existingBook.setGenre((String) value);
+                case "price" -> existingBook.setPrice(((Number) value).doubleValue());
+                case "available" -> existingBook.setAvailable((Boolean) value);
+                case "pages" -> existingBook.setPages(((Number) value).intValue());
+                case "language" -> existingBook.setLanguage((String) value);
+                case "publisher" -> existingBook.setPublisher((String) value);
+                case "publicationyear" -> existingBook.setPublicationYear(((Number) value).intValue());
+                case "coverimageurl" -> existingBook.setCoverImageUrl((String) value);
+                case "isbn" -> existingBook.setIsbn((String) value);
+            }
+        });
+
+        // No save: the managed Book is flushed on commit, and a concurrent commit in between
+        // fails the version check with an ObjectOptimisticLockingFailureException
+        eventPublisher.publishEvent(BookChangedEvent.updated(before, BookSnapshot.of(existingBook)));
+        return existingBook;
+    }
+
+    // The "version" entry of a partial update, or null if there is none
+    private static Long expectedVersion(Map<String, Object> updates) {
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            if (!"version".equalsIgnoreCase(update.getKey()) || update.getValue() == null) {
+                continue;
+            }
+            if (update.getValue() instanceof Integer || update.getValue() instanceof Long) {
+                return ((Number) update.getValue()).longValue();
+            }
+            throw new InvalidBookUpdateException("Field 'version' must be a whole number, got " + update.getValue());
+        }
+        return null;
     }
 
     /**
@@ -73,10 +312,9 @@ public class BookService {
      * @throws RuntimeException if the Book is not found
      */
     public void deleteBook(Long id) {
-        if(!bookRepository.existsById(id)){
-            throw new RuntimeException("Book not found with ID: " + id);
-        }
+        BookSnapshot before = BookSnapshot.of(loadBook(id));
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(before));
     }
 
     /**
@@ -85,12 +323,9 @@ public class BookService {
      * @param categoryId ID of the Category
      * @throws RuntimeException if the Book or Category is not found
      */
+    @Transactional
     public void addCategoryToBook(Long bookId, Long categoryId) {
-        Book book = getBookById(bookId);
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new RuntimeException("Category not found with ID: " + categoryId));
-        book.addCategory(category);
-        bookRepository.save(book);
+        addCategoriesToBook(bookId, List.of(categoryId));
     }
 
     /**
@@ -99,71 +334,307 @@ public class BookService {
      * @param categoryId ID of the Category
      * @throws RuntimeException if the Book or Category is not found
      */
+    @Transactional
     public void removeCategoryFromBook(Long bookId, Long categoryId) {
-        Book book = getBookById(bookId);
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new RuntimeException("Category not found with ID: " + categoryId));
-        book.removeCategory(category);
-        bookRepository.save(book);
+        removeCategoriesFromBook(bookId, List.of(categoryId));
+    }
+
+    /**
+     * Add several Categories to a Book with a single insert on book_categories.
+     * Neither the Book nor the Categories (and their book sets) are loaded.
+     * @param bookId ID of the Book
+     * @param categoryIds IDs of the Categories; ones already linked are skipped
+     * @return number of Categories newly linked
+     * @throws RuntimeException if the Book or any Category is not found
+     */
+    @Transactional
+    public int addCategoriesToBook(Long bookId, Collection<Long> categoryIds) {
+        requireBook(bookId);
+        return applyCategoryChanges(List.of(bookId), categoryIds, List.of()).getLinksAdded();
+    }
+
+    /**
+     * Remove several Categories from a Book with a single delete on book_categories.
+     * @param bookId ID of the Book
+     * @param categoryIds IDs of the Categories
+     * @return number of Categories unlinked
+     * @throws RuntimeException if the Book or any Category is not found
+     */
+    @Transactional
+    public int removeCategoriesFromBook(Long bookId, Collection<Long> categoryIds) {
+        requireBook(bookId);
+        return applyCategoryChanges(List.of(bookId), List.of(), categoryIds).getLinksRemoved();
+    }
+
+    /**
+     * Remove every Category from a Book with a single delete on book_categories.
+     * @param bookId ID of the Book
+     * @return number of Categories unlinked
+     * @throws RuntimeException if the Book is not found
+     */
+    @Transactional
+    public int removeAllCategoriesFromBook(Long bookId) {
+        requireBook(bookId);
+        int removed = bookRepository.deleteAllCategoryLinks(List.of(bookId));
+        if (removed > 0) {
+            markCategoriesChanged(List.of(bookId), LocalDateTime.now());
+        }
+        return removed;
+    }
+
+    /**
+     * Reclassify many Books at once: link every Category of addCategoryIds to every Book and
+     * unlink every Category of removeCategoryIds, in one transaction. Books are processed in
+     * chunks of MAX_IDS_PER_STATEMENT, with one delete and one insert per chunk.
+     * @param bookIds IDs of the Books; IDs of missing Books are ignored
+     * @param addCategoryIds IDs of the Categories to add, may be empty
+     * @param removeCategoryIds IDs of the Categories to remove, may be empty
+     * @return the number of Books found and of links added and removed
+     * @throws RuntimeException if any Category is not found
+     * @throws InvalidCategoryAssignmentException if a Category is both added and removed
+     */
+    @Transactional
+    public CategoryAssignmentResult assignCategories(
+            Collection<Long> bookIds, Collection<Long> addCategoryIds, Collection<Long> removeCategoryIds) {
+        return applyCategoryChanges(bookIds,
+                addCategoryIds != null ? addCategoryIds : List.of(),
+                removeCategoryIds != null ? removeCategoryIds : List.of());
+    }
+
+    private CategoryAssignmentResult applyCategoryChanges(
+            Collection<Long> bookIds, Collection<Long> addCategoryIds, Collection<Long> removeCategoryIds) {
+        Set<Long> toAdd = new LinkedHashSet<>(addCategoryIds);
+        Set<Long> toRemove = new LinkedHashSet<>(removeCategoryIds);
+        Set<Long> conflicting = new TreeSet<>(toAdd);
+        conflicting.retainAll(toRemove);
+        if (!conflicting.isEmpty()) {
+            throw new InvalidCategoryAssignmentException("Categories cannot be both added and removed: " + conflicting);
+        }
+        Set<Long> allCategories = new LinkedHashSet<>(toAdd);
+        allCategories.addAll(toRemove);
+        requireCategories(allCategories);
+
+        List<Long> books = new ArrayList<>(new LinkedHashSet<>(bookIds));
+        LocalDateTime now = LocalDateTime.now();
+        int booksFound = 0;
+        int linksAdded = 0;
+        int linksRemoved = 0;
+        for (int from = 0; from < books.size() && !allCategories.isEmpty(); from += MAX_IDS_PER_STATEMENT) {
+            List<Long> existing = bookRepository.findExistingIds(
+                    books.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, books.size())));
+            if (existing.isEmpty()) {
+                continue;
+            }
+            booksFound += existing.size();
+            int removed = toRemove.isEmpty() ? 0 : bookRepository.deleteCategoryLinks(existing, toRemove);
+            int added = toAdd.isEmpty() ? 0 : bookRepository.insertCategoryLinks(existing, toAdd);
+            if (removed > 0 || added > 0) {
+                markCategoriesChanged(existing, now);
+            }
+            linksRemoved += removed;
+            linksAdded += added;
+        }
+
+        return CategoryAssignmentResult.builder()
+                .booksRequested(books.size())
+                .booksFound(booksFound)
+                .linksAdded(linksAdded)
+                .linksRemoved(linksRemoved)
+                .build();
+    }
+
+    // Categories are not part of BookSnapshot, so no BookChangedEvent is needed: the cached
+    // entities, the versions used for conditional GETs and the per-category rankings are stale
+    private void markCategoriesChanged(List<Long> bookIds, LocalDateTime now) {
+        bookRepository.touchUpdatedAt(bookIds, now);
+        bookCache.invalidateAll(bookIds);
+        eventPublisher.publishEvent(new BookCategoriesChangedEvent(List.copyOf(bookIds)));
+    }
+
+    private void requireBook(Long bookId) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new RuntimeException("Book not found with ID: " + bookId);
+        }
+    }
+
+    private void requireCategories(Set<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new TreeSet<>(categoryIds);
+        missing.removeAll(categoryRepository.findExistingIds(categoryIds));
+        if (missing.size() == 1) {
+            throw new RuntimeException("Category not found with ID: " + missing.iterator().next());
+        }
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Categories not found with IDs: " + missing);
+        }
     }
 
     /**
-     * Add a Review to a Book.
+     * Add a Review to a Book. A Review that belonged to another Book is moved.
+     * The rating aggregates are adjusted with one UPDATE each; the reviews of the Book are never loaded.
      * @param bookId ID of the Book
      * @param reviewId ID of the Review
      * @throws RuntimeException if the Book or Review is not found
      */
+    @Transactional
     public void addReviewToBook(Long bookId, Long reviewId) {
-        Book book = getBookById(bookId);
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new RuntimeException("Review not found with ID: " + reviewId));
-        book.addReview(review);
-        updateBookAverageRating(book);
-        bookRepository.save(book);
+        Book book = loadBook(bookId);
+        Review review = loadReview(reviewId);
+        Book previousBook = review.getBook();
+        if (previousBook != null && bookId.equals(previousBook.getId())) {
+            return;
+        }
+        review.setBook(book);
+        if (previousBook != null) {
+            adjustRating(previousBook.getId(), review.getRating(), 0);
+        }
+        adjustRating(bookId, 0, review.getRating());
     }
 
     /**
-     * Remove a Review from a Book.
+     * Remove a Review from a Book; the Review is deleted.
      * @param bookId ID of the Book
      * @param reviewId ID of the Review
-     * @throws RuntimeException if the Book or Review is not found
+     * @throws RuntimeException if the Book or Review is not found or the Review belongs to another Book
      */
+    @Transactional
     public void removeReviewFromBook(Long bookId, Long reviewId) {
-        Book book = getBookById(bookId);
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new RuntimeException("Review not found with ID: " + reviewId));
-        book.removeReview(review);
-        updateBookAverageRating(book);
-        bookRepository.save(book);
+        Review review = loadReviewOfBook(bookId, reviewId);
+        reviewRepository.delete(review);
+        adjustRating(bookId, review.getRating(), 0);
     }
-    
+
     /**
-     * Updates the average rating of a book based on its reviews.
-     * @param book The book whose average rating needs to be updated
+     * Change the rating of a Review of a Book.
+     * @param bookId ID of the Book
+     * @param reviewId ID of the Review
+     * @param rating the new rating, 1 to 5
+     * @throws RuntimeException if the Book or Review is not found or the Review belongs to another Book
+     * @throws IllegalArgumentException if the rating is out of range
      */
-    private void updateBookAverageRating(Book book) {
-        if (book.getReviews().isEmpty()) {
-            book.setAverageRating(0.0);
+    @Transactional
+    public void updateReviewRating(Long bookId, Long reviewId, int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        Review review = loadReviewOfBook(bookId, reviewId);
+        int previousRating = review.getRating();
+        if (previousRating == rating) {
             return;
         }
-        
-        double sum = 0;
-        for (Review review : book.getReviews()) {
-            sum += review.getRating();
+        review.setRating(rating);
+        adjustRating(bookId, previousRating, rating);
+    }
+
+    /**
+     * Get the rating summary of a Book from its stored aggregates.
+     * @param id ID of the Book
+     * @return average rating, number of ratings and per-star counts
+     * @throws RuntimeException if the Book is not found
+     */
+    public RatingSummary getRatingSummary(Long id) {
+        return BookMapper.toRatingSummary(getBookById(id));
+    }
+
+    private Review loadReview(Long reviewId) {
+        return reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new RuntimeException("Review not found with ID: " + reviewId));
+    }
+
+    private Review loadReviewOfBook(Long bookId, Long reviewId) {
+        requireBook(bookId);
+        Review review = loadReview(reviewId);
+        if (review.getBook() == null || !bookId.equals(review.getBook().getId())) {
+            throw new RuntimeException("Review " + reviewId + " does not belong to book " + bookId);
         }
-        
-        book.setAverageRating(sum / book.getReviews().size());
+        return review;
+    }
+
+    // Move one rating out of and/or into the aggregates of a book with a single UPDATE and publish
+    // the change. Pending changes (e.g. the review itself) are flushed first
+    private void adjustRating(Long bookId, int removedRating, int addedRating) {
+        BookSnapshot before = BookSnapshot.of(loadBook(bookId));
+        bookRepository.adjustRatingAggregates(bookId, removedRating, addedRating, LocalDateTime.now());
+        // The update cleared the persistence context, so this reads the new aggregates
+        BookSnapshot after = BookSnapshot.of(loadBook(bookId));
+        eventPublisher.publishEvent(BookChangedEvent.updated(before, after));
     }
 
     /**
      * Search for books by title, author, and/or genre.
+     * If nothing matches a title or author query, the typo-tolerant search is used instead.
      * @param title Optional title to search for
      * @param author Optional author to search for
      * @param genre Optional genre to search for
      * @return List of matching books
      */
-    public List<Book> searchBooks(String title, String author, String genre) {
-        return bookRepository.searchBooks(title, author, genre, null, null, null, null, null);
+    public List<BookListItem> searchBooks(String title, String author, String genre) {
+        List<Book> books = bookRepository.isTrigramSearchAvailable()
+                ? bookRepository.trigramSearchBooks(title, author, genre, null, null, null, null, null)
+                : bookRepository.findAll(
+                    BookSpecifications.search(title, author, genre, null, null, null, null, null), Sort.by("id"));
+        if (books.isEmpty() && (title != null || author != null)) {
+            return fuzzySearchBooks(title, author, genre, MAX_PAGE_SIZE).getBooks();
+        }
+        return books.stream().map(BookMapper::toBookListItem).toList();
+    }
+
+    /**
+     * Typo-tolerant search served from the in-memory BookSearchIndex.
+     * Title and author terms that occur in no title or author are replaced by their closest
+     * indexed term; terms without a correction are dropped. Returns no books while the index
+     * is still being built.
+     * @param title Optional title terms
+     * @param author Optional author terms
+     * @param genre Optional genre terms, matched without correction
+     * @param limit Maximum number of books to return
+     * @return Matching books ordered by relevance, with the corrections that were applied
+     */
+    public FuzzySearchResponse fuzzySearchBooks(String title, String author, String genre, int limit) {
+        if (!bookSearchIndex.isReady()) {
+            return FuzzySearchResponse.builder().books(List.of()).corrections(Map.of()).build();
+        }
+
+        Map<String, List<String>> corrections = new LinkedHashMap<>();
+        String correctedTitle = correctTerms(title, corrections);
+        String correctedAuthor = correctTerms(author, corrections);
+
+        Map<BookSearchIndex.Field, String> fieldQueries = new EnumMap<>(BookSearchIndex.Field.class);
+        if (correctedTitle != null) fieldQueries.put(BookSearchIndex.Field.TITLE, correctedTitle);
+        if (correctedAuthor != null) fieldQueries.put(BookSearchIndex.Field.AUTHOR, correctedAuthor);
+        if (genre != null) fieldQueries.put(BookSearchIndex.Field.GENRE, genre);
+
+        List<BookListItem> books = fieldQueries.isEmpty()
+                ? List.of()
+                : findAllByIdInOrder(bookSearchIndex.search(null, fieldQueries, limit));
+        return FuzzySearchResponse.builder()
+                .books(books)
+                .corrections(corrections)
+                .correctedTitle(correctedTitle)
+                .correctedAuthor(correctedAuthor)
+                .build();
+    }
+
+    // Replace misspelled terms by their best correction and record the candidates;
+    // null if the text is null or none of its terms could be matched
+    private String correctTerms(String text, Map<String, List<String>> corrections) {
+        if (text == null) {
+            return null;
+        }
+        Map<String, List<String>> termCorrections = bookSearchIndex.suggestCorrections(text);
+        corrections.putAll(termCorrections);
+        List<String> terms = new ArrayList<>();
+        for (String term : TextNormalizer.tokenize(text)) {
+            List<String> candidates = termCorrections.get(term);
+            if (candidates == null) {
+                terms.add(term);
+            } else if (!candidates.isEmpty()) {
+                terms.add(candidates.get(0));
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
     }
     
     /**
@@ -178,54 +649,203 @@ public class BookService {
      * @param available Optional availability status
      * @return List of matching books
      */
-    public List<Book> advancedSearchBooks(
+    public List<BookListItem> advancedSearchBooks(
             String title, String author, String genre, String description,
             Double minPrice, Double maxPrice, Double minRating, Boolean available) {
-        return bookRepository.searchBooks(
-            title, author, genre, description, minPrice, maxPrice, minRating, available);
+        List<Book> books = bookRepository.isTrigramSearchAvailable()
+                ? bookRepository.trigramSearchBooks(
+                    title, author, genre, description, minPrice, maxPrice, minRating, available)
+                : bookRepository.findAll(
+                    BookSpecifications.search(title, author, genre, description, minPrice, maxPrice, minRating, available),
+                    Sort.by("id"));
+        return books.stream().map(BookMapper::toBookListItem).toList();
     }
     
     /**
-     * Get books by category ID.
+     * Ranked full-text search served from the in-memory BookSearchIndex.
+     * Field queries must all match; the free-text query is matched against every field.
+     * Falls back to the SQL search while the index is still being built; there the free-text
+     * query must appear as a substring of one of the text fields.
+     * @param query Optional free-text query
+     * @param title Optional title terms
+     * @param author Optional author terms
+     * @param genre Optional genre terms
+     * @param description Optional description terms
+     * @param limit Maximum number of books to return
+     * @return List of matching books ordered by relevance
+     */
+    public List<BookListItem> rankedSearchBooks(
+            String query, String title, String author, String genre, String description, int limit) {
+        if (!bookSearchIndex.isReady()) {
+            Specification<Book> specification = BookSpecifications.search(
+                    title, author, genre, description, null, null, null, null);
+            if (query != null && !query.isBlank()) {
+                specification = specification.and(BookSpecifications.containsInAnyTextIgnoreCase(query.trim()));
+            }
+            return scroll(specification, Sort.by("id"), null, limit, FieldSelection.all()).getContent();
+        }
+
+        Map<BookSearchIndex.Field, String> fieldQueries = new EnumMap<>(BookSearchIndex.Field.class);
+        if (title != null) fieldQueries.put(BookSearchIndex.Field.TITLE, title);
+        if (author != null) fieldQueries.put(BookSearchIndex.Field.AUTHOR, author);
+        if (genre != null) fieldQueries.put(BookSearchIndex.Field.GENRE, genre);
+        if (description != null) fieldQueries.put(BookSearchIndex.Field.DESCRIPTION, description);
+
+        List<Long> rankedIds = bookSearchIndex.search(query, fieldQueries, limit);
+        return findAllByIdInOrder(rankedIds);
+    }
+
+    /**
+     * Typeahead suggestions served from the in-memory BookSuggestIndex; never queries the database.
+     * Returns no suggestions while the index is still being built, rather than running
+     * a LIKE scan per keystroke.
+     * @param prefix Text typed so far, matched against title and author word starts and the ISBN
+     * @param limit Maximum number of suggestions
+     * @return Suggestions ordered by rating and number of ratings
+     */
+    public List<BookSuggestion> suggestBooks(String prefix, int limit) {
+        if (!bookSuggestIndex.isReady()) {
+            return List.of();
+        }
+        return bookSuggestIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Faceted search served from the in-memory BookFacetIndex.
+     * Matching books are returned in ID order, one keyset page at a time, together with
+     * the facet counts over all matches.
+     * @param filters Selected values per facet
+     * @param cursor Cursor from the previous page, null for the first page
+     * @param size Items per page
+     * @return Page of matching books with facet counts
+     */
+    public FacetedSearchResponse facetedSearchBooks(
+            Map<BookFacetIndex.Facet, Set<String>> filters, String cursor, int size) {
+        Sort sort = Sort.by("id");
+        KeysetScrollPosition position = cursorCodec.decode(cursor, sort, Book.class);
+        Long afterId = position.isInitial() ? null : (Long) position.getKeys().get("id");
+
+        BookFacetIndex.FacetSearchResult result = bookFacetIndex.search(filters, afterId, pageLimit(size).max());
+        List<BookListItem> books = findAllByIdInOrder(result.bookIds());
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        result.facetCounts().forEach((facet, counts) -> facets.put(facet.getKey(), counts));
+
+        List<Long> ids = result.bookIds();
+        String nextCursor = result.hasNext()
+                ? cursorCodec.encode(ScrollPosition.forward(Map.of("id", ids.get(ids.size() - 1))))
+                : null;
+        return FacetedSearchResponse.builder()
+                .books(books)
+                .totalMatches(result.totalMatches())
+                .size(books.size())
+                .hasNext(result.hasNext())
+                .nextCursor(nextCursor)
+                .facets(facets)
+                .build();
+    }
+
+    /**
+     * Load list items in a single query and return them in the order of the given IDs.
+     * IDs that no longer exist are skipped.
+     * @param ids Ordered list of Book IDs
+     * @return List of books in the same order as the IDs
+     */
+    private List<BookListItem> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookListItem> booksById = new HashMap<>();
+        bookRepository.findListItemsByIdIn(ids).forEach(book -> booksById.put(book.getId(), book));
+        List<BookListItem> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookListItem book = booksById.get(id);
+            if (book != null) {
+                ordered.add(book);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Get books by category ID, one keyset page at a time.
      * @param categoryId ID of the Category
-     * @return List of books in the category
+     * @param cursor Cursor from the previous page, null for the first page
+     * @param size Items per page
+     * @param fields Selected fields of the list items
+     * @return Page of books in the category ordered by ID
      * @throws RuntimeException if the Category is not found
      */
-    public List<Book> getBooksByCategory(Long categoryId) {
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new RuntimeException("Category not found with ID: " + categoryId));
-                
-        return bookRepository.findByCategory(category);
+    public CursorPage<BookListItem> getBooksByCategory(Long categoryId, String cursor, int size, FieldSelection fields) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new RuntimeException("Category not found with ID: " + categoryId);
+        }
+        return scroll(BookSpecifications.inCategory(categoryId), Sort.by("id"), cursor, size, fields);
     }
 
     /**
-     * Get books that are available.
-     * @return List of available books
+     * Get books that are available, one keyset page at a time.
+     * @param cursor Cursor from the previous page, null for the first page
+     * @param size Items per page
+     * @param fields Selected fields of the list items
+     * @return Page of available books ordered by ID
      */
-    public List<Book> getAvailableBooks() {
-        return bookRepository.findByAvailableTrue();
+    public CursorPage<BookListItem> getAvailableBooks(String cursor, int size, FieldSelection fields) {
+        return scroll(BookSpecifications.availableIs(true), Sort.by("id"), cursor, size, fields);
     }
     
     /**
-     * Get books with rating greater than or equal to the specified minimum.
+     * Get books with rating greater than or equal to the specified minimum, best rated first.
      * @param minRating Minimum rating threshold
-     * @return List of books with rating >= minRating
+     * @param cursor Cursor from the previous page, null for the first page
+     * @param size Items per page
+     * @param fields Selected fields of the list items
+     * @return Page of books with rating >= minRating
      */
-    public List<Book> getTopRatedBooks(Double minRating) {
-        return bookRepository.findByAverageRatingGreaterThanEqual(minRating);
+    public CursorPage<BookListItem> getTopRatedBooks(Double minRating, String cursor, int size, FieldSelection fields) {
+        // The ID tie-breaker follows the rating direction, so the (average_rating, id) index serves the scan
+        Sort sort = Sort.by(Sort.Direction.DESC, "averageRating", "id");
+        return scroll(BookSpecifications.ratingAtLeast(minRating), sort, cursor, size, fields);
     }
     
     /**
-     * Get books with price less than or equal to the specified maximum.
+     * Get the K best rated books overall, of a genre and/or of a category, served from the
+     * in-memory BookRankingIndex. Ties are broken by number of ratings, then ID.
+     * Falls back to a sorted SQL query while the rankings are still being built.
+     * @param genre Optional genre, matched case-insensitively
+     * @param categoryId Optional category ID
+     * @param limit Number of books to return
+     * @return The best rated books, best first
+     */
+    public List<BookListItem> getTopBooks(String genre, Long categoryId, int limit) {
+        if (!bookRankingIndex.isReady()) {
+            List<Specification<Book>> specs = new ArrayList<>();
+            if (genre != null) specs.add(BookSpecifications.genreEqualsIgnoreCase(genre.trim()));
+            if (categoryId != null) specs.add(BookSpecifications.inCategory(categoryId));
+            Sort sort = Sort.by(Sort.Order.desc("averageRating"), Sort.Order.desc("ratingCount"), Sort.Order.asc("id"));
+            return scroll(Specification.allOf(specs), sort, null, limit, FieldSelection.all()).getContent();
+        }
+        return findAllByIdInOrder(bookRankingIndex.top(genre, categoryId, limit));
+    }
+
+    /**
+     * Get books with price less than or equal to the specified maximum, cheapest first.
      * @param maxPrice Maximum price threshold
-     * @return List of books with price <= maxPrice
+     * @param cursor Cursor from the previous page, null for the first page
+     * @param size Items per page
+     * @param fields Selected fields of the list items
+     * @return Page of books with price <= maxPrice
      */
-    public List<Book> getBooksByPriceRange(Double maxPrice) {
-        return bookRepository.findByPriceLessThanEqual(maxPrice);
+    public CursorPage<BookListItem> getBooksByPriceRange(Double maxPrice, String cursor, int size, FieldSelection fields) {
+        Sort sort = Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+        return scroll(BookSpecifications.priceAtMost(maxPrice), sort, cursor, size, fields);
     }
     
     /**
-     * Advanced search for books with pagination support.
+     * Search for books with keyset (cursor) pagination.
+     * Only the supplied criteria are added to the query, and the page is located by seeking
+     * past the last row of the previous page instead of skipping an offset.
+     * @param query Optional compact query such as "author:le guin price:<20 rating:>=4", see BookQueryParser
      * @param title Optional title to search for
      * @param author Optional author to search for
      * @param genre Optional genre to search for
@@ -234,22 +854,103 @@ public class BookService {
      * @param maxPrice Optional maximum price
      * @param minRating Optional minimum rating
      * @param available Optional availability status
-     * @param page Page number (0-based)
+     * @param cursor Cursor from the previous page, null for the first page
      * @param size Items per page
      * @param sortBy Field to sort by
      * @param direction Sort direction (asc or desc)
+     * @param fields Selected fields of the list items
      * @return Page of matching books
+     * @throws InvalidSearchQueryException if the query cannot be parsed or sortBy is not a sortable field
      */
-    public Page<Book> searchBooksWithPagination(
-            String title, String author, String genre, String description,
+    public CursorPage<BookListItem> scrollBooks(
+            String query, String title, String author, String genre, String description,
             Double minPrice, Double maxPrice, Double minRating, Boolean available,
-            int page, int size, String sortBy, String direction) {
-            
-        Sort sort = Sort.by(sortBy);
-        sort = "desc".equalsIgnoreCase(direction) ? sort.descending() : sort.ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        return bookRepository.searchBooksWithPagination(
-            title, author, genre, description, minPrice, maxPrice, minRating, available, pageable);
+            String cursor, int size, String sortBy, String direction, FieldSelection fields) {
+        Specification<Book> specification = Specification.allOf(
+                BookQueryParser.parse(query),
+                BookSpecifications.search(title, author, genre, description, minPrice, maxPrice, minRating, available));
+        return scroll(specification, keysetSort(sortBy, direction), cursor, size, fields);
+    }
+
+    /**
+     * Total number of books matching the scrollBooks filters, which never count themselves.
+     * Without filters the total comes from the in-memory CatalogStatistics; otherwise it is the
+     * cached count of an earlier request with the same filters, or a fresh COUNT on a miss.
+     * @return the total, flagged approximate unless it was counted by this call
+     * @throws InvalidSearchQueryException if the query cannot be parsed
+     */
+    public SearchCountCache.Count countBooks(
+            String query, String title, String author, String genre, String description,
+            Double minPrice, Double maxPrice, Double minRating, Boolean available) {
+        List<Object> filters = Arrays.asList(
+                query, title, author, genre, description, minPrice, maxPrice, minRating, available);
+        if (filters.stream().allMatch(filter -> filter == null || filter.toString().isBlank())) {
+            return new SearchCountCache.Count(catalogStatistics.getTotalBooks(), true);
+        }
+
+        Specification<Book> specification = Specification.allOf(
+                BookQueryParser.parse(query),
+                BookSpecifications.search(title, author, genre, description, minPrice, maxPrice, minRating, available));
+        // Text filters match case-insensitively; the query's isbn clause and the numbers do not
+        String filterKey = String.join("\u0000",
+                BookQueryParser.canonicalize(query),
+                caseInsensitiveKey(title), caseInsensitiveKey(author), caseInsensitiveKey(genre),
+                caseInsensitiveKey(description),
+                Objects.toString(minPrice, ""), Objects.toString(maxPrice, ""),
+                Objects.toString(minRating, ""), Objects.toString(available, ""));
+        return searchCountCache.get(filterKey, () -> bookRepository.count(specification));
+    }
+
+    // Blank text filters are skipped by BookSpecifications.search, like missing ones
+    private static String caseInsensitiveKey(String filter) {
+        return filter == null || filter.isBlank() ? "" : filter.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Read one keyset page of list items matching the specification, selecting only the
+     * columns of the selected fields (the repository adds the ones it needs for ETags and cursors).
+     */
+    private CursorPage<BookListItem> scroll(
+            Specification<Book> specification, Sort sort, String cursor, int size, FieldSelection fields) {
+        KeysetScrollPosition position = cursorCodec.decode(cursor, sort, Book.class);
+        int limit = pageLimit(size).max();
+        if (fields.isAll()) {
+            return toCursorPage(bookRepository.scrollListItems(specification, sort, position, limit));
+        }
+        Set<String> columns = fields.columns(BookListQueries.LIST_ITEM_FIELDS, Set.of());
+        return toCursorPage(bookRepository.scrollListItems(specification, sort, position, limit, columns));
+    }
+
+    /**
+     * Build a keyset sort on a whitelisted field, with the ID as a unique tie-breaker.
+     * The tie-breaker follows the sort direction so both directions scan the same index.
+     */
+    private Sort keysetSort(String sortBy, String direction) {
+        String attribute = SORTABLE_FIELDS.get(sortBy);
+        if (attribute == null) {
+            throw new InvalidSearchQueryException("Invalid sort field: " + sortBy
+                    + ". Valid values are: " + SORTABLE_FIELDS.keySet());
+        }
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if ("id".equals(attribute)) {
+            return Sort.by(sortDirection, "id");
+        }
+        return Sort.by(sortDirection, attribute, "id");
+    }
+
+    private Limit pageLimit(int size) {
+        return Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    private <T> CursorPage<T> toCursorPage(Window<T> window) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? cursorCodec.encode(window.positionAt(window.size() - 1))
+                : null;
+        return CursorPage.<T>builder()
+                .content(window.getContent())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 }
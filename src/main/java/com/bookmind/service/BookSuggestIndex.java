@@ -0,0 +1,504 @@
+package com.bookmind.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bookmind.dto.BookSuggestion;
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.BookSnapshot;
+import com.bookmind.event.CatalogImportedEvent;
+import com.bookmind.model.Book;
+import com.bookmind.repository.BookRepository;
+import com.bookmind.utility.TextNormalizer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory prefix index (trie) behind the typeahead endpoint.
+ *
+ * Keys are the normalized title and author, read from every word start (so "pot" finds
+ * "Harry Potter"), and the ISBN without separators. Every trie node caches the IDs of the
+ * best MAX_SUGGESTIONS books below it, ranked by rating weighted with the number of ratings,
+ * so a lookup is a walk down the prefix and a copy of that list, independent of catalog size.
+ * Like BookSearchIndex it is built at startup and kept current from BookChangedEvents.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSuggestIndex {
+
+    /** Maximum number of suggestions per lookup, and the size of each node's cached ranking. */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    // Keys are truncated to this many characters to bound the trie depth
+    private static final int MAX_KEY_LENGTH = 32;
+    // Only the first words of a title or author are used as key starts
+    private static final int MAX_WORD_STARTS = 8;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+    // Changes applied while a rebuild reads the catalog, replayed onto the rebuilt index; null otherwise
+    private List<Consumer<IndexData>> pendingChanges;
+    private volatile boolean ready = false;
+
+    /**
+     * Trie node. Children are kept in parallel arrays sorted by label; terminals are the books
+     * with a key ending here and top holds the best books of the whole subtree, best first.
+     */
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private long[] terminals = NO_IDS;
+        private long[] top = NO_IDS;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            labels = insert(labels, insertAt, label);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = child;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] shrunkLabels = new char[labels.length - 1];
+            System.arraycopy(labels, 0, shrunkLabels, 0, index);
+            System.arraycopy(labels, index + 1, shrunkLabels, index, labels.length - index - 1);
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            labels = shrunkLabels;
+            children = shrunk;
+        }
+
+        private boolean isEmpty() {
+            return terminals.length == 0 && children.length == 0;
+        }
+
+        private static char[] insert(char[] array, int index, char value) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, index);
+            grown[index] = value;
+            System.arraycopy(array, index, grown, index + 1, array.length - index);
+            return grown;
+        }
+    }
+
+    /**
+     * Indexed book: the fields returned as a suggestion, the ranking score and the keys it is stored under.
+     */
+    private record Entry(BookSuggestion suggestion, double score, Set<String> keys) {
+    }
+
+    /**
+     * The trie and the indexed books. A rebuild fills a fresh instance and swaps it in, so
+     * lookups keep using the previous one until the new one is complete.
+     */
+    private static final class IndexData {
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final Node root = new Node();
+
+        private void index(Long bookId, Entry entry) {
+            remove(bookId);
+            entries.put(bookId, entry);
+            for (String key : entry.keys()) {
+                insertKey(key, bookId);
+            }
+        }
+
+        private void remove(Long bookId) {
+            Entry entry = entries.get(bookId);
+            if (entry == null) {
+                return;
+            }
+            for (String key : entry.keys()) {
+                removeKey(key, bookId);
+            }
+            entries.remove(bookId);
+        }
+
+        private void collect(String prefix, int limit, Set<Long> ids) {
+            Node node = root;
+            String truncated = truncate(prefix);
+            for (int i = 0; i < truncated.length() && node != null; i++) {
+                node = node.child(truncated.charAt(i));
+            }
+            if (node == null) {
+                return;
+            }
+            boolean truncatedPrefix = truncated.length() < prefix.length();
+            for (long id : node.top) {
+                if (ids.size() >= limit) {
+                    return;
+                }
+                // Keys are stored truncated, so a longer prefix is checked against the full keys
+                if (!truncatedPrefix || matchesFullKey(entries.get(id), prefix)) {
+                    ids.add(id);
+                }
+            }
+        }
+
+        private boolean matchesFullKey(Entry entry, String prefix) {
+            BookSuggestion suggestion = entry.suggestion();
+            List<String> values = List.of(
+                    TextNormalizer.normalize(suggestion.getTitle()),
+                    TextNormalizer.normalize(suggestion.getAuthor()));
+            for (String value : values) {
+                if (value.startsWith(prefix) || value.contains(" " + prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void insertKey(String key, long bookId) {
+            Node node = root;
+            offer(node, bookId);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.addChild(key.charAt(i));
+                offer(node, bookId);
+            }
+            if (indexOf(node.terminals, bookId) < 0) {
+                node.terminals = append(node.terminals, bookId);
+            }
+        }
+
+        private void removeKey(String key, long bookId) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i].child(key.charAt(i));
+                if (path[i + 1] == null) {
+                    return;
+                }
+            }
+
+            Node last = path[key.length()];
+            int index = indexOf(last.terminals, bookId);
+            if (index >= 0) {
+                last.terminals = removeAt(last.terminals, index);
+            }
+
+            // Bottom-up: children are repaired before the parents that merge their rankings
+            for (int depth = key.length(); depth >= 0; depth--) {
+                Node node = path[depth];
+                if (depth > 0 && node.isEmpty()) {
+                    path[depth - 1].removeChild(key.charAt(depth - 1));
+                } else if (indexOf(node.top, bookId) >= 0) {
+                    recomputeTop(node);
+                }
+            }
+        }
+
+        // Insert the book into the node's ranking if it ranks among the best MAX_SUGGESTIONS
+        private void offer(Node node, long bookId) {
+            if (indexOf(node.top, bookId) >= 0) {
+                return;
+            }
+            long[] top = node.top;
+            if (top.length == MAX_SUGGESTIONS && !ranksBefore(bookId, top[top.length - 1])) {
+                return;
+            }
+            int insertAt = 0;
+            while (insertAt < top.length && ranksBefore(top[insertAt], bookId)) {
+                insertAt++;
+            }
+            int length = Math.min(top.length + 1, MAX_SUGGESTIONS);
+            long[] updated = new long[length];
+            System.arraycopy(top, 0, updated, 0, insertAt);
+            updated[insertAt] = bookId;
+            System.arraycopy(top, insertAt, updated, insertAt + 1, length - insertAt - 1);
+            node.top = updated;
+        }
+
+        // The best books of a subtree are among the node's own terminals and its children's rankings
+        private void recomputeTop(Node node) {
+            Set<Long> candidates = new LinkedHashSet<>();
+            for (long id : node.terminals) {
+                candidates.add(id);
+            }
+            for (Node child : node.children) {
+                for (long id : child.top) {
+                    candidates.add(id);
+                }
+            }
+            node.top = candidates.stream()
+                    .sorted((a, b) -> ranksBefore(a, b) ? -1 : (a.equals(b) ? 0 : 1))
+                    .limit(MAX_SUGGESTIONS)
+                    .mapToLong(Long::longValue)
+                    .toArray();
+        }
+
+        private boolean ranksBefore(long a, long b) {
+            int byScore = Double.compare(entries.get(b).score(), entries.get(a).score());
+            return byScore != 0 ? byScore < 0 : a < b;
+        }
+    }
+
+    /**
+     * Build the index from the books table once the application has started, and again after
+     * a bulk import. Books are read in ID-ordered keyset batches into a fresh index, which
+     * replaces the live one once complete; book changes committed meanwhile are replayed onto it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        log.info("Building book suggest index");
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData rebuilt = new IndexData();
+        boolean complete = false;
+        try {
+            long afterId = 0;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                for (Book book : batch) {
+                    rebuilt.index(book.getId(), entry(BookSnapshot.of(book)));
+                    afterId = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    // A batch read before a change committed may hold the older state of the book
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    data = rebuilt;
+                }
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        ready = true;
+        log.info("Book suggest index built with {} books", rebuilt.entries.size());
+    }
+
+    /**
+     * @return true once the startup build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuild the index after a committed bulk catalog import, which publishes no per-book events.
+     * Runs on the task executor; suggestions come from the current trie until the rebuilt one is swapped in.
+     *
+     * @param event the import published by BookImportService
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Keep the index in step with committed book writes, including rating changes.
+     *
+     * @param event the book change published by BookService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getAfter() == null) {
+            remove(event.getBookId());
+        } else {
+            index(event.getAfter());
+        }
+    }
+
+    /**
+     * Add or replace a book in the index.
+     *
+     * @param book the book to index, ignored if null or not yet persisted
+     */
+    public void index(BookSnapshot book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Entry entry = entry(book);
+        apply(index -> index.index(book.getId(), entry));
+    }
+
+    /**
+     * Remove a book from the index.
+     *
+     * @param bookId ID of the book to remove
+     */
+    public void remove(Long bookId) {
+        apply(index -> index.remove(bookId));
+    }
+
+    // Apply a change to the live index, recording it for replay while a rebuild reads the catalog
+    private void apply(Consumer<IndexData> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(data);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suggest books whose title, author (from any word) or ISBN starts with the prefix.
+     *
+     * @param prefix the text typed so far
+     * @param limit maximum number of suggestions, capped at MAX_SUGGESTIONS
+     * @return suggestions, best ranked first; empty if the prefix has no letters or digits
+     */
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        // A typed ISBN may contain separators that the stored key does not
+        String compact = normalized.replace(" ", "");
+
+        lock.readLock().lock();
+        try {
+            IndexData index = data;
+            Map<Long, Entry> entries = index.entries;
+            Set<Long> ids = new LinkedHashSet<>();
+            index.collect(normalized, boundedLimit, ids);
+            if (!compact.equals(normalized) && ids.size() < boundedLimit) {
+                index.collect(compact, boundedLimit, ids);
+            }
+            List<BookSuggestion> suggestions = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                suggestions.add(entries.get(id).suggestion());
+            }
+            if (!compact.equals(normalized)) {
+                suggestions.sort(Comparator.comparingDouble((BookSuggestion s) -> -entries.get(s.getId()).score())
+                        .thenComparing(BookSuggestion::getId));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Entry entry(BookSnapshot book) {
+        BookSuggestion suggestion = BookSuggestion.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .averageRating(book.getAverageRating())
+                .ratingCount(book.getRatingCount())
+                .build();
+        return new Entry(suggestion, score(book), keys(book));
+    }
+
+    /**
+     * Ranking score: the average rating weighted by the log of the number of ratings, so a
+     * well-reviewed book beats one with a single perfect review; unrated books score zero.
+     */
+    private static double score(BookSnapshot book) {
+        return book.getAverageRating() * Math.log(2 + book.getRatingCount());
+    }
+
+    private static Set<String> keys(BookSnapshot book) {
+        Set<String> keys = new LinkedHashSet<>();
+        addWordStarts(keys, book.getTitle());
+        addWordStarts(keys, book.getAuthor());
+        String isbn = TextNormalizer.normalize(book.getIsbn()).replace(" ", "");
+        if (!isbn.isEmpty()) {
+            keys.add(truncate(isbn));
+        }
+        return keys;
+    }
+
+    private static void addWordStarts(Set<String> keys, String value) {
+        String normalized = TextNormalizer.normalize(value);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        keys.add(truncate(normalized));
+        int start = 0;
+        for (int words = 1; words < MAX_WORD_STARTS; words++) {
+            start = normalized.indexOf(' ', start) + 1;
+            if (start == 0) {
+                break;
+            }
+            keys.add(truncate(normalized.substring(start)));
+        }
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static int indexOf(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long[] append(long[] ids, long id) {
+        long[] grown = Arrays.copyOf(ids, ids.length + 1);
+        grown[ids.length] = id;
+        return grown;
+    }
+
+    private static long[] removeAt(long[] ids, int index) {
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, index);
+        System.arraycopy(ids, index + 1, shrunk, index, ids.length - index - 1);
+        return shrunk;
+    }
+}
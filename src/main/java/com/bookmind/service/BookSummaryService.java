@@ -23,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 public class BookSummaryService {
 
     private final BookRepository bookRepository;
+    private final BookCache bookCache;
     private final GoogleAiClient googleAiClient;
 
     /**
@@ -36,24 +37,26 @@ public class BookSummaryService {
     public BookSummaryResponse getBookSummary(Long bookId) {
         log.info("Getting summary for book ID: {}", bookId);
 
-        Book book = bookRepository.findById(bookId)
+        Book cachedBook = bookCache.get(bookId)
                 .orElseThrow(() -> new BookNotFoundException(bookId));
 
         // Check if summary already exists
-        if (book.getAiSummary() != null && !book.getAiSummary().isBlank()) {
+        if (cachedBook.getAiSummary() != null && !cachedBook.getAiSummary().isBlank()) {
             log.debug("Returning cached summary for book ID: {}", bookId);
             return BookSummaryResponse.builder()
-                    .bookId(book.getId())
-                    .title(book.getTitle())
-                    .author(book.getAuthor())
-                    .summary(book.getAiSummary())
-                    .generatedAt(book.getSummaryGeneratedAt())
+                    .bookId(cachedBook.getId())
+                    .title(cachedBook.getTitle())
+                    .author(cachedBook.getAuthor())
+                    .summary(cachedBook.getAiSummary())
+                    .generatedAt(cachedBook.getSummaryGeneratedAt())
                     .cached(true)
                     .message("Summary retrieved from cache")
                     .build();
         }
 
-        // Generate new summary
+        // Generate new summary on a managed copy (cached books must not be modified)
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException(bookId));
         return generateAndSaveSummary(book);
     }
 
@@ -119,6 +122,7 @@ public class BookSummaryService {
         book.setAiSummary(null);
         book.setSummaryGeneratedAt(null);
         bookRepository.save(book);
+        bookCache.invalidate(bookId);
 
         log.info("Summary deleted for book ID: {}", bookId);
     }
@@ -154,6 +158,7 @@ public class BookSummaryService {
         book.setAiSummary(summary);
         book.setSummaryGeneratedAt(generatedAt);
         bookRepository.save(book);
+        bookCache.invalidate(book.getId());
 
         log.info("Summary saved for book ID: {}", book.getId());
 
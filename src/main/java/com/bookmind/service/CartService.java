@@ -1,7 +1,12 @@
 package com.bookmind.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
@@ -9,7 +14,11 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.bookmind.dto.AddToCartRequest;
+import com.bookmind.dto.BookListItem;
+import com.bookmind.dto.BulkOperationDetail;
+import com.bookmind.dto.BulkOperationResponse;
 import com.bookmind.dto.CartItemDto;
+import com.bookmind.dto.CartOperation;
 import com.bookmind.dto.CartResponse;
 import com.bookmind.dto.CheckoutResponse;
 import com.bookmind.dto.RemoveFromCartRequest;
@@ -29,6 +38,10 @@ import com.bookmind.repository.BookRepository;
 import com.bookmind.repository.CartItemRepository;
 import com.bookmind.repository.CartRepository;
 import com.bookmind.repository.UserRepository;
+import com.bookmind.service.CartWriteBehindStore.CachedCart;
+import com.bookmind.service.CartWriteBehindStore.CartSnapshot;
+import com.bookmind.service.CartWriteBehindStore.Line;
+import com.bookmind.utility.ResourceVersion;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,9 +54,12 @@ public class CartService {
 
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
+    private final BookCache bookCache;
+    private final BookService bookService;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final OrderService orderService;
+    private final CartWriteBehindStore cartStore;
 
     /**
      * Get cart for a user
@@ -55,12 +71,39 @@ public class CartService {
     public CartResponse getCart(Long userId) {
         log.info("Fetching cart details for user ID: {}", userId);
 
+        if (cartStore.isEnabled()) {
+            return toCartResponse(cartStore.snapshot(userId, () -> getOrCreateCart(userId)));
+        }
+
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseGet(() -> getOrCreateCart(userId)); // Create empty cart if doesn't exist
 
         return toCartResponse(cart);
     }
 
+    /**
+     * Get the version of a user's cart for conditional GETs, without loading the cart.
+     * Covers the cart row, its items and the books they reference.
+     * 
+     * @param userId the authenticated user's ID
+     * @return the cart's validators, or empty if the user has no cart yet
+     */
+    public Optional<ResourceVersion> getCartVersion(Long userId) {
+        if (cartStore.isEnabled()) {
+            // Edits not yet written behind are only visible in memory
+            Optional<CartSnapshot> cached = cartStore.cachedSnapshot(userId);
+            if (cached.isPresent()) {
+                return Optional.of(toCartVersion(cached.get()));
+            }
+        }
+        return cartRepository.findStampByUserId(userId)
+                .map(stamp -> ResourceVersion.of(
+                        ResourceVersion.latest(stamp.getCreatedAt(), stamp.getUpdatedAt(), stamp.getBooksUpdatedAt()),
+                        "cart", stamp.getCartId(), stamp.getTotalPrice(), stamp.getCheckedOut(),
+                        stamp.getCreatedAt(), stamp.getUpdatedAt(), stamp.getItemCount(),
+                        stamp.getTotalQuantity(), stamp.getBooksUpdatedAt()));
+    }
+
     /**
      * Add a book to user's cart. Creates cart if it doesn't exist.
      * If book already in cart, increases quantity.
@@ -78,11 +121,21 @@ public class CartService {
         log.info("Adding book ID: {} (qty: {}) to cart for user ID: {}",
                 request.getBookId(), request.getQuantity(), userId);
 
+        if (cartStore.isEnabled()) {
+            Book book = bookCache.get(request.getBookId())
+                    .orElseThrow(() -> new BookNotFoundException(request.getBookId()));
+            CartSnapshot cart = cartStore.edit(userId, () -> getOrCreateCart(userId), cached -> cached.put(
+                    cached.line(book.getId())
+                            .map(line -> new Line(line.bookId(), line.price(), line.quantity() + request.getQuantity()))
+                            .orElseGet(() -> new Line(book.getId(), book.getPrice(), request.getQuantity()))));
+            return toCartResponse(cart);
+        }
+
         // 1. Get or create cart for user
         Cart cart = getOrCreateCart(userId);
 
         // 2. Get the book
-        Book book = bookRepository.findById(request.getBookId())
+        Book book = bookCache.get(request.getBookId())
                 .orElseThrow(() -> new BookNotFoundException(request.getBookId()));
 
         // 3. Check if book already exists in cart
@@ -153,6 +206,14 @@ public class CartService {
         log.info("Removing book ID: {} from cart for user ID: {}",
                 request.getBookId(), userId);
 
+        if (cartStore.isEnabled()) {
+            CartSnapshot cart = cartStore.edit(userId, () -> findCart(userId), cached -> {
+                requireLine(cached, request.getBookId());
+                cached.remove(request.getBookId());
+            });
+            return toCartResponse(cart);
+        }
+
         // 1. Get cart (must exist for remove operation)
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new CartNotFoundException(userId));
@@ -192,6 +253,14 @@ public class CartService {
         log.info("Updating quantity for book ID: {} in cart for user ID: {} to qty: {}",
                 request.getBookId(), userId, request.getQuantity());
 
+        if (cartStore.isEnabled()) {
+            CartSnapshot cart = cartStore.edit(userId, () -> findCart(userId), cached -> {
+                Line line = requireLine(cached, request.getBookId());
+                cached.put(new Line(line.bookId(), line.price(), request.getQuantity()));
+            });
+            return toCartResponse(cart);
+        }
+
         // 1. Get cart (must exist for update operation)
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new CartNotFoundException(userId));
@@ -211,6 +280,232 @@ public class CartService {
         return toCartResponse(savedCart);
     }
 
+    /**
+     * Apply several add/update/remove operations to user's cart, in order.
+     * The cart is loaded once, the changes are written in one batch and the total is
+     * recalculated once. An operation that fails is reported and the others still apply.
+     * 
+     * @param userId the authenticated user's ID
+     * @param operations the operations, applied in list order
+     * @return BulkOperationResponse with one detail per operation
+     */
+    @Transactional(
+        readOnly = false,
+        propagation = Propagation.REQUIRED,
+        rollbackFor = {Exception.class}
+    )
+    public BulkOperationResponse applyCartOperations(Long userId, List<CartOperation> operations) {
+        log.info("Applying {} cart operations for user ID: {}", operations.size(), userId);
+
+        List<BulkOperationDetail> details = new ArrayList<>();
+
+        // Read every book of the batch with one query, before the cart is locked
+        Map<Long, BookListItem> books = new HashMap<>();
+        bookService.getBooksByIds(operations.stream().map(CartOperation::getBookId).toList())
+                .forEach(book -> books.put(book.getId(), book));
+
+        if (cartStore.isEnabled()) {
+            // A batch whose operations all failed or were skipped leaves the cart as it was
+            cartStore.editIfChanged(userId, () -> getOrCreateCart(userId), cached -> {
+                for (CartOperation operation : operations) {
+                    details.add(applyOperation(operation, books,
+                            detail -> applyToCachedCart(cached, books, operation, detail)));
+                }
+                return details.stream().anyMatch(detail -> "SUCCESS".equals(detail.getStatus()));
+            });
+        } else {
+            // 1. Load the cart with its items once
+            Cart cart = cartRepository.findWithItemsByUserId(userId)
+                    .orElseGet(() -> getOrCreateCart(userId));
+            Map<Long, CartItem> items = new HashMap<>();
+            cart.getItems().forEach(item -> items.put(item.getBook().getId(), item));
+
+            // 2. Apply the operations to the loaded cart
+            for (CartOperation operation : operations) {
+                details.add(applyOperation(operation, books,
+                        detail -> applyToCart(cart, items, books, operation, detail)));
+            }
+
+            // 3. Recalculate total once; the changes are flushed together on commit
+            cart.recalculateTotalPrice();
+            cartRepository.save(cart);
+        }
+
+        int successCount = 0, skippedCount = 0, failedCount = 0;
+        for (BulkOperationDetail detail : details) {
+            switch (detail.getStatus()) {
+                case "SUCCESS" -> successCount++;
+                case "SKIPPED" -> skippedCount++;
+                default -> failedCount++;
+            }
+        }
+        log.info("Applied cart operations for user ID: {}: {} succeeded, {} skipped, {} failed",
+                userId, successCount, skippedCount, failedCount);
+
+        return BulkOperationResponse.builder()
+                .success(successCount > 0 || (skippedCount > 0 && failedCount == 0))
+                .message(String.format("Processed %d operations: %d applied, %d skipped, %d failed",
+                        operations.size(), successCount, skippedCount, failedCount))
+                .totalRequested(operations.size())
+                .totalProcessed(details.size())
+                .successfullyProcessed(successCount)
+                .skipped(skippedCount)
+                .failed(failedCount)
+                .details(details)
+                .build();
+    }
+
+    /**
+     * Run one batch operation and record its outcome
+     * 
+     * @param operation the operation
+     * @param books the batch's books by ID
+     * @param apply applies the operation and sets the detail's status
+     * @return the operation's detail
+     */
+    private BulkOperationDetail applyOperation(
+            CartOperation operation, Map<Long, BookListItem> books, Consumer<BulkOperationDetail> apply) {
+        BookListItem book = books.get(operation.getBookId());
+        BulkOperationDetail detail = BulkOperationDetail.builder()
+                .bookId(operation.getBookId())
+                .bookDescription(book != null ? book.getTitle() : "Unknown Book")
+                .build();
+
+        try {
+            if (operation.getOp() == CartOperation.Type.UPDATE && operation.getQuantity() == null) {
+                detail.setStatus("FAILED");
+                detail.setReason("Quantity is required for update");
+            } else {
+                apply.accept(detail);
+            }
+        } catch (BookNotFoundException e) {
+            detail.setStatus("FAILED");
+            detail.setReason("Book not found");
+        } catch (BookNotInCartException e) {
+            detail.setStatus("FAILED");
+            detail.setReason("Book not in cart");
+        } catch (RuntimeException e) {
+            detail.setStatus("FAILED");
+            detail.setReason("Unexpected error: " + e.getMessage());
+        }
+        return detail;
+    }
+
+    /**
+     * Apply one batch operation to a loaded cart
+     * 
+     * @param cart the cart entity
+     * @param items the cart's items by book ID, kept in step with the cart
+     * @param books the batch's books by ID
+     * @param operation the operation
+     * @param detail the operation's detail
+     */
+    private void applyToCart(Cart cart, Map<Long, CartItem> items, Map<Long, BookListItem> books,
+                             CartOperation operation, BulkOperationDetail detail) {
+        Long bookId = operation.getBookId();
+        CartItem cartItem = items.get(bookId);
+
+        switch (operation.getOp()) {
+            case ADD -> {
+                int quantity = operation.getQuantity() != null ? operation.getQuantity() : 1;
+                if (cartItem != null) {
+                    cartItem.setQuantity(cartItem.getQuantity() + quantity);
+                    detail.setReason("Quantity increased");
+                } else {
+                    BookListItem book = requireBook(books, bookId);
+                    CartItem newItem = new CartItem();
+                    newItem.setCart(cart);
+                    newItem.setBook(bookRepository.getReferenceById(bookId));
+                    newItem.setQuantity(quantity);
+                    newItem.setPrice(book.getPrice());  // Snapshot price at time of adding
+                    // Persist first: items are compared by ID, so new items need one before joining the set
+                    CartItem savedItem = cartItemRepository.save(newItem);
+                    cart.addCartItem(savedItem);
+                    items.put(bookId, savedItem);
+                    detail.setReason("Book added");
+                }
+                detail.setStatus("SUCCESS");
+            }
+            case UPDATE -> {
+                if (cartItem == null) {
+                    throw new BookNotInCartException(bookId, cart.getId());
+                }
+                cartItem.setQuantity(operation.getQuantity());
+                detail.setStatus("SUCCESS");
+                detail.setReason("Quantity updated");
+            }
+            case REMOVE -> {
+                if (cartItem == null) {
+                    detail.setStatus("SKIPPED");
+                    detail.setReason("Book not in cart");
+                } else {
+                    cart.removeCartItem(cartItem);
+                    items.remove(bookId);
+                    detail.setStatus("SUCCESS");
+                    detail.setReason("Book removed");
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply one batch operation to a cart held by the write-behind store
+     * 
+     * @param cart the cached cart, locked by the caller
+     * @param books the batch's books by ID
+     * @param operation the operation
+     * @param detail the operation's detail
+     */
+    private void applyToCachedCart(CachedCart cart, Map<Long, BookListItem> books,
+                                   CartOperation operation, BulkOperationDetail detail) {
+        Long bookId = operation.getBookId();
+        Optional<Line> line = cart.line(bookId);
+
+        switch (operation.getOp()) {
+            case ADD -> {
+                int quantity = operation.getQuantity() != null ? operation.getQuantity() : 1;
+                if (line.isPresent()) {
+                    cart.put(new Line(bookId, line.get().price(), line.get().quantity() + quantity));
+                    detail.setReason("Quantity increased");
+                } else {
+                    BookListItem book = requireBook(books, bookId);
+                    cart.put(new Line(bookId, book.getPrice(), quantity));
+                    detail.setReason("Book added");
+                }
+                detail.setStatus("SUCCESS");
+            }
+            case UPDATE -> {
+                Line existing = requireLine(cart, bookId);
+                cart.put(new Line(bookId, existing.price(), operation.getQuantity()));
+                detail.setStatus("SUCCESS");
+                detail.setReason("Quantity updated");
+            }
+            case REMOVE -> {
+                if (line.isEmpty()) {
+                    detail.setStatus("SKIPPED");
+                    detail.setReason("Book not in cart");
+                } else {
+                    cart.remove(bookId);
+                    detail.setStatus("SUCCESS");
+                    detail.setReason("Book removed");
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a book of a batch from the books read for it
+     *
+     * @throws BookNotFoundException if the book does not exist
+     */
+    private static BookListItem requireBook(Map<Long, BookListItem> books, Long bookId) {
+        BookListItem book = books.get(bookId);
+        if (book == null) {
+            throw new BookNotFoundException(bookId);
+        }
+        return book;
+    }
+
     /**
      * Clear all items from user's cart.
      * 
@@ -226,6 +521,10 @@ public class CartService {
     public CartResponse clearCart(Long userId) {
         log.info("Clearing cart for user ID: {}", userId);
 
+        if (cartStore.isEnabled()) {
+            return toCartResponse(cartStore.edit(userId, () -> findCart(userId), CachedCart::clear));
+        }
+
         // 1. Get cart (must exist for clear operation)
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new CartNotFoundException(userId));
@@ -256,6 +555,18 @@ public class CartService {
     public CheckoutResponse checkoutCart(Long userId) {
         log.info("Checking out cart for user ID: {}", userId);
 
+        if (cartStore.isEnabled()) {
+            // Write the pending edits in this transaction, so the order is built from the current cart
+            return cartStore.flushAndRun(userId, () -> findCart(userId),
+                    () -> checkoutStoredCart(userId), CachedCart::clear);
+        }
+        return checkoutStoredCart(userId);
+    }
+
+    /**
+     * Checkout the user's cart as stored in the database; runs in the caller's transaction.
+     */
+    private CheckoutResponse checkoutStoredCart(Long userId) {
         // 1. Get cart (must exist for checkout operation)
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new CartNotFoundException(userId));
@@ -290,8 +601,70 @@ public class CartService {
                 .build();
     }   
 
+    /**
+     * Get the user's cart, which must exist
+     */
+    private Cart findCart(Long userId) {
+        return cartRepository.findByUserId(userId)
+                .orElseThrow(() -> new CartNotFoundException(userId));
+    }
+
+    /**
+     * Get the line of a book in a cached cart
+     *
+     * @throws BookNotInCartException if the book is not in the cart
+     */
+    private Line requireLine(CachedCart cart, Long bookId) {
+        return cart.line(bookId)
+                .orElseThrow(() -> new BookNotInCartException(bookId, cart.cartId()));
+    }
+
     // ==================== MAPPER METHODS ====================
 
+    /**
+     * Convert a cached cart to CartResponse DTO; titles are read from the book cache
+     * 
+     * @param cart copy of the cached cart
+     * @return CartResponse DTO
+     */
+    private CartResponse toCartResponse(CartSnapshot cart) {
+        List<CartItemDto> itemDtos = cart.lines().stream()
+                .map(line -> new CartItemDto(
+                        line.bookId(),
+                        bookCache.get(line.bookId()).map(Book::getTitle).orElse(null),
+                        line.price(),
+                        line.quantity(),
+                        line.price() * line.quantity()))
+                .collect(Collectors.toList());
+
+        return CartResponse.builder()
+                .id(cart.cartId())
+                .userId(cart.userId())
+                .items(itemDtos)
+                .totalPrice(cart.totalPrice())
+                .totalItems(itemDtos.size())
+                .createdAt(cart.createdAt())
+                .updatedAt(cart.updatedAt())
+                .build();
+    }
+
+    /**
+     * Version of a cached cart: its edit revision plus the books it shows
+     * 
+     * @param cart copy of the cached cart
+     * @return the cart's validators
+     */
+    private ResourceVersion toCartVersion(CartSnapshot cart) {
+        LocalDateTime booksUpdatedAt = null;
+        for (Line line : cart.lines()) {
+            LocalDateTime bookUpdatedAt = bookCache.get(line.bookId()).map(Book::getUpdatedAt).orElse(null);
+            booksUpdatedAt = ResourceVersion.latest(booksUpdatedAt, bookUpdatedAt);
+        }
+        return ResourceVersion.of(
+                ResourceVersion.latest(cart.createdAt(), cart.updatedAt(), booksUpdatedAt),
+                "cart", cart.cartId(), cart.updatedAt(), cart.revision(), cart.lines(), booksUpdatedAt);
+    }
+
     /**
      * Convert Cart entity to CartResponse DTO
      * 
@@ -0,0 +1,583 @@
+package com.bookmind.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bookmind.model.Cart;
+import com.bookmind.model.CartItem;
+import com.bookmind.repository.BookRepository;
+import com.bookmind.repository.CartItemRepository;
+import com.bookmind.repository.CartRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind store for carts (optional, app.cart.write-behind.enabled).
+ *
+ * Active carts are kept in memory keyed by user ID and edited there; a cart edit costs no
+ * query. Edited carts are marked dirty and written to carts/cart_items by a scheduled flush,
+ * in batches of FLUSH_BATCH_SIZE carts per transaction, so a crash loses at most the edits of
+ * one flush interval. Checkout flushes the cart synchronously inside its own transaction.
+ * Clean carts that have not been used for the idle timeout are dropped from memory and
+ * reloaded from the database on the next access.
+ *
+ * The store is local to one application instance: with several instances, requests of a
+ * user must be routed to the same instance (or the mode left disabled). ReplicationListener
+ * beans are told about every change and flush of a cached cart, e.g. to copy carts to a
+ * standby instance or an external store.
+ */
+@Slf4j
+@Component
+public class CartWriteBehindStore implements DisposableBean {
+
+    private static final int FLUSH_BATCH_SIZE = 100;
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ReplicationListener> listeners;
+    private final boolean enabled;
+    private final Duration idleTimeout;
+
+    private final Map<Long, CachedCart> carts = new ConcurrentHashMap<>();
+
+    /**
+     * A line of a cached cart: the book, its price when it was added and the quantity.
+     */
+    public record Line(Long bookId, double price, int quantity) {
+    }
+
+    /**
+     * Consistent copy of a cached cart, taken under its lock.
+     */
+    public record CartSnapshot(Long cartId, Long userId, LocalDateTime createdAt, LocalDateTime updatedAt,
+                               long revision, List<Line> lines) {
+
+        public double totalPrice() {
+            return lines.stream().mapToDouble(line -> line.price() * line.quantity()).sum();
+        }
+    }
+
+    /**
+     * Hook for replicating cached carts. Calls are made on the thread that changed or flushed
+     * the cart; changes of one cart are reported in order, with the cart locked, so listeners
+     * must return quickly. An exception thrown by a listener is logged and ignored.
+     */
+    public interface ReplicationListener {
+
+        /**
+         * A cached cart changed: edited, cleared by checkout or restored after a rollback.
+         *
+         * @param cart the cart after the change
+         */
+        default void cartChanged(CartSnapshot cart) {
+        }
+
+        /**
+         * Cached carts were written to the database and committed.
+         *
+         * @param carts the written state of the carts
+         */
+        default void cartsFlushed(List<CartSnapshot> carts) {
+        }
+    }
+
+    /**
+     * In-memory state of one user's cart.
+     *
+     * Edits and snapshots hold lock; database writes of the cart hold flushLock, which is
+     * always taken before lock, so a flush never writes an older snapshot over a newer one.
+     */
+    public static final class CachedCart {
+
+        private final Long cartId;
+        private final Long userId;
+        private final LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private long revision;
+        private volatile boolean dirty;
+        // Set under lock when the cart is dropped from the store; an evicted cart is never edited
+        private boolean evicted;
+        private volatile long lastAccessNanos = System.nanoTime();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantLock flushLock = new ReentrantLock();
+
+        private CachedCart(Cart cart) {
+            this.cartId = cart.getId();
+            this.userId = cart.getUser().getId();
+            this.createdAt = cart.getCreatedAt();
+            this.updatedAt = cart.getUpdatedAt();
+            for (CartItem item : cart.getItems()) {
+                lines.put(item.getBook().getId(), new Line(item.getBook().getId(), item.getPrice(), item.getQuantity()));
+            }
+        }
+
+        /**
+         * @return ID of the cart row
+         */
+        public Long cartId() {
+            return cartId;
+        }
+
+        /**
+         * @param bookId ID of a book
+         * @return the cart's line for the book, if any
+         */
+        public Optional<Line> line(Long bookId) {
+            return Optional.ofNullable(lines.get(bookId));
+        }
+
+        /**
+         * Add a line or replace the line of the same book.
+         */
+        public void put(Line line) {
+            lines.put(line.bookId(), line);
+        }
+
+        /**
+         * Remove the line of a book.
+         */
+        public void remove(Long bookId) {
+            lines.remove(bookId);
+        }
+
+        /**
+         * Remove every line.
+         */
+        public void clear() {
+            lines.clear();
+        }
+
+        private CartSnapshot snapshot() {
+            return new CartSnapshot(cartId, userId, createdAt, updatedAt, revision, List.copyOf(lines.values()));
+        }
+    }
+
+    public CartWriteBehindStore(
+            CartRepository cartRepository,
+            CartItemRepository cartItemRepository,
+            BookRepository bookRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectProvider<ReplicationListener> listeners,
+            @Value("${app.cart.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.cart.write-behind.idle-timeout-seconds:1800}") long idleTimeoutSeconds) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.listeners = listeners.orderedStream().toList();
+        this.enabled = enabled;
+        this.idleTimeout = Duration.ofSeconds(idleTimeoutSeconds);
+        if (enabled) {
+            log.info("Cart write-behind enabled with idle timeout {}s", idleTimeoutSeconds);
+        }
+    }
+
+    /**
+     * @return true if carts are edited in memory and written behind
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get a copy of a user's cart, caching the cart from the database on a miss.
+     *
+     * @param userId ID of the user
+     * @param loader loads the user's cart from the database; may throw if there is none
+     * @return a consistent copy of the cart
+     */
+    public CartSnapshot snapshot(Long userId, Supplier<Cart> loader) {
+        CachedCart cart = lockLive(userId, loader, false);
+        try {
+            return cart.snapshot();
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Get a copy of a user's cart if it is cached.
+     *
+     * @param userId ID of the user
+     * @return a consistent copy of the cart, or empty if the cart is not in memory
+     */
+    public Optional<CartSnapshot> cachedSnapshot(Long userId) {
+        CachedCart cart = carts.get(userId);
+        if (cart == null) {
+            return Optional.empty();
+        }
+        cart.lock.lock();
+        try {
+            return cart.evicted ? Optional.empty() : Optional.of(cart.snapshot());
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Edit a user's cart in memory and mark it for the next flush. An edit that throws leaves
+     * the cart unmarked, so it must check before it changes anything.
+     *
+     * @param userId ID of the user
+     * @param loader loads the user's cart from the database on a miss; may throw if there is none
+     * @param edit the change
+     * @return the cart after the change
+     */
+    public CartSnapshot edit(Long userId, Supplier<Cart> loader, Consumer<CachedCart> edit) {
+        return editIfChanged(userId, loader, cart -> {
+            edit.accept(cart);
+            return true;
+        });
+    }
+
+    /**
+     * Edit a user's cart in memory and, if the edit reports a change, mark it for the next flush.
+     * A cart the edit left unchanged keeps its revision and modification time.
+     *
+     * @param userId ID of the user
+     * @param loader loads the user's cart from the database on a miss; may throw if there is none
+     * @param edit the change; returns false if it changed nothing
+     * @return the cart after the change
+     */
+    public CartSnapshot editIfChanged(Long userId, Supplier<Cart> loader, Predicate<CachedCart> edit) {
+        CachedCart cart = lockLive(userId, loader, false);
+        try {
+            if (edit.test(cart)) {
+                cart.dirty = true;
+                changed(cart);
+            }
+            return cart.snapshot();
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Flush a user's cart in the caller's transaction and run an action on the flushed database
+     * state, with edits of the cart blocked until the transaction completes. Used by checkout;
+     * the action's changes to the cart (typically clearing it) are applied to the cached cart
+     * afterwards. If the action throws, the cart keeps its pending edits; if the transaction rolls
+     * back after the action succeeded, the cart gets its lines back and is flushed again if the
+     * rolled-back flush had written edits.
+     *
+     * @param userId ID of the user
+     * @param loader loads the user's cart from the database on a miss; may throw if there is none
+     * @param action runs against the database after the flush
+     * @param afterAction applies the action's outcome to the cached cart
+     * @return the action's result
+     */
+    public <T> T flushAndRun(Long userId, Supplier<Cart> loader, Supplier<T> action, Consumer<CachedCart> afterAction) {
+        CachedCart cart = lockLive(userId, loader, true);
+        boolean unlockAfterCompletion = false;
+        try {
+            boolean wasDirty = cart.dirty;
+            if (wasDirty) {
+                persist(List.of(cart.snapshot()));
+                cart.dirty = false;
+            }
+            T result;
+            try {
+                result = action.get();
+            } catch (RuntimeException e) {
+                // The transaction rolls back with the flush, so the edits are still pending
+                cart.dirty = wasDirty;
+                throw e;
+            }
+            CartSnapshot flushed = cart.snapshot();
+            afterAction.accept(cart);
+            changed(cart);
+            unlockAfterCompletion = restoreOnRollback(cart, flushed, wasDirty);
+            return result;
+        } finally {
+            if (!unlockAfterCompletion) {
+                cart.lock.unlock();
+                cart.flushLock.unlock();
+            }
+        }
+    }
+
+    // Get the user's cart with its lock held (and its flushLock before it, if asked), retrying
+    // if the cart was evicted between the lookup and the lock
+    private CachedCart lockLive(Long userId, Supplier<Cart> loader, boolean withFlushLock) {
+        while (true) {
+            CachedCart cart = carts.computeIfAbsent(userId, id -> new CachedCart(loader.get()));
+            if (withFlushLock) {
+                cart.flushLock.lock();
+            }
+            cart.lock.lock();
+            if (!cart.evicted) {
+                cart.lastAccessNanos = System.nanoTime();
+                return cart;
+            }
+            cart.lock.unlock();
+            if (withFlushLock) {
+                cart.flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write the dirty carts to the database in batches and drop idle clean carts.
+     */
+    @Scheduled(
+        fixedDelayString = "${app.cart.write-behind.flush-interval-ms:1000}",
+        initialDelayString = "${app.cart.write-behind.flush-interval-ms:1000}"
+    )
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        List<CachedCart> batch = new ArrayList<>();
+        for (CachedCart cart : carts.values()) {
+            if (cart.dirty) {
+                // A cart being flushed by checkout is skipped and picked up by the next flush
+                if (cart.flushLock.tryLock()) {
+                    batch.add(cart);
+                    if (batch.size() == FLUSH_BATCH_SIZE) {
+                        flushBatch(batch);
+                        batch = new ArrayList<>();
+                    }
+                }
+            } else if (now - cart.lastAccessNanos > idleTimeout.toNanos()) {
+                evictIfIdle(cart);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    /**
+     * Flush everything on shutdown, so a graceful stop loses no edits.
+     */
+    @Override
+    public void destroy() {
+        if (enabled) {
+            flush();
+            log.info("Cart write-behind flushed on shutdown");
+        }
+    }
+
+    // The carts' flushLocks are held by the caller and released here
+    private void flushBatch(List<CachedCart> batch) {
+        List<CartSnapshot> snapshots = new ArrayList<>(batch.size());
+        try {
+            for (CachedCart cart : batch) {
+                snapshots.add(takeForFlush(cart));
+            }
+            transactionTemplate.executeWithoutResult(status -> persist(snapshots));
+            flushed(snapshots);
+            log.debug("Flushed {} carts", snapshots.size());
+        } catch (RuntimeException e) {
+            // One cart that cannot be written must not hold back the others
+            log.warn("Failed to flush {} carts together, flushing them one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::flushAlone);
+        } finally {
+            batch.forEach(cart -> cart.flushLock.unlock());
+        }
+    }
+
+    // Flush one cart in its own transaction; the caller holds its flushLock. A cart that still
+    // fails keeps its edits for the next flush.
+    private void flushAlone(CachedCart cart) {
+        RuntimeException failure;
+        try {
+            CartSnapshot snapshot = takeForFlush(cart);
+            transactionTemplate.executeWithoutResult(status -> persist(List.of(snapshot)));
+            flushed(List.of(snapshot));
+            return;
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        try {
+            // Typically a line of a book deleted since it was added, which fails the item's foreign key
+            List<Long> dropped = dropDeletedBooks(cart);
+            if (!dropped.isEmpty()) {
+                log.warn("Dropped deleted books {} from cart {} of user {}", dropped, cart.cartId, cart.userId);
+                CartSnapshot snapshot = takeForFlush(cart);
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(snapshot)));
+                flushed(List.of(snapshot));
+                return;
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        cart.dirty = true;
+        log.warn("Failed to flush cart {} of user {}, retrying with the next flush: {}",
+                cart.cartId, cart.userId, failure.getMessage());
+    }
+
+    // Snapshot a cart for writing and mark it clean; an edit after this marks it dirty again
+    private CartSnapshot takeForFlush(CachedCart cart) {
+        cart.lock.lock();
+        try {
+            CartSnapshot snapshot = cart.snapshot();
+            cart.dirty = false;
+            return snapshot;
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    // Remove the lines of books that no longer exist from a cached cart
+    private List<Long> dropDeletedBooks(CachedCart cart) {
+        List<Long> bookIds;
+        cart.lock.lock();
+        try {
+            bookIds = List.copyOf(cart.lines.keySet());
+        } finally {
+            cart.lock.unlock();
+        }
+        List<Long> missing = new ArrayList<>(bookIds);
+        missing.removeAll(bookRepository.findExistingIds(bookIds));
+        if (missing.isEmpty()) {
+            return missing;
+        }
+
+        cart.lock.lock();
+        try {
+            missing.forEach(cart.lines::remove);
+            changed(cart);
+        } finally {
+            cart.lock.unlock();
+        }
+        return missing;
+    }
+
+    // Make carts/cart_items match the snapshots; runs in the caller's transaction
+    private void persist(List<CartSnapshot> snapshots) {
+        Map<Long, CartSnapshot> snapshotsByCartId = new HashMap<>();
+        snapshots.forEach(snapshot -> snapshotsByCartId.put(snapshot.cartId(), snapshot));
+
+        List<Cart> dbCarts = cartRepository.findAllWithItemsByIdIn(snapshotsByCartId.keySet());
+        for (Cart cart : dbCarts) {
+            CartSnapshot snapshot = snapshotsByCartId.get(cart.getId());
+            Map<Long, CartItem> itemsByBookId = new HashMap<>();
+            cart.getItems().forEach(item -> itemsByBookId.put(item.getBook().getId(), item));
+
+            for (Line line : snapshot.lines()) {
+                CartItem item = itemsByBookId.remove(line.bookId());
+                if (item == null) {
+                    item = new CartItem();
+                    item.setCart(cart);
+                    item.setBook(bookRepository.getReferenceById(line.bookId()));
+                    item.setQuantity(line.quantity());
+                    item.setPrice(line.price());
+                    // Persist first: items are compared by ID, so new items need one before joining the set
+                    cart.addCartItem(cartItemRepository.save(item));
+                } else {
+                    item.setQuantity(line.quantity());
+                    item.setPrice(line.price());
+                }
+            }
+            itemsByBookId.values().forEach(cart::removeCartItem);
+            cart.recalculateTotalPrice();
+        }
+        cartRepository.saveAll(dbCarts);
+    }
+
+    // Record a change of a cart whose lock is held and tell the listeners
+    private void changed(CachedCart cart) {
+        cart.updatedAt = LocalDateTime.now();
+        cart.revision++;
+        if (!listeners.isEmpty()) {
+            CartSnapshot snapshot = cart.snapshot();
+            notifyListeners(listener -> listener.cartChanged(snapshot));
+        }
+    }
+
+    private void flushed(List<CartSnapshot> snapshots) {
+        notifyListeners(listener -> listener.cartsFlushed(snapshots));
+    }
+
+    private void notifyListeners(Consumer<ReplicationListener> call) {
+        for (ReplicationListener listener : listeners) {
+            try {
+                call.accept(listener);
+            } catch (RuntimeException e) {
+                log.warn("Cart replication listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void evictIfIdle(CachedCart cart) {
+        if (!cart.flushLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!cart.lock.tryLock()) {
+                return;
+            }
+            try {
+                if (!cart.dirty && System.nanoTime() - cart.lastAccessNanos > idleTimeout.toNanos()) {
+                    evict(cart);
+                }
+            } finally {
+                cart.lock.unlock();
+            }
+        } finally {
+            cart.flushLock.unlock();
+        }
+    }
+
+    private void evict(CachedCart cart) {
+        cart.evicted = true;
+        carts.remove(cart.userId, cart);
+    }
+
+    // Keep the cart locked until the running transaction completes. If it rolls back, the database
+    // is back at its state before the flush, so the cart gets the flushed lines back and stays dirty
+    // if the flush had written edits; if the outcome is unknown the cart is reloaded on next access.
+    // Returns false, leaving the unlocking to the caller, if no transaction is running.
+    private boolean restoreOnRollback(CachedCart cart, CartSnapshot flushed, boolean wasDirty) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED && wasDirty) {
+                        flushed(List.of(flushed));
+                    } else if (status == STATUS_ROLLED_BACK) {
+                        cart.lines.clear();
+                        flushed.lines().forEach(cart::put);
+                        cart.dirty = wasDirty;
+                        changed(cart);
+                    } else if (status == STATUS_UNKNOWN) {
+                        evict(cart);
+                    }
+                } finally {
+                    cart.lock.unlock();
+                    cart.flushLock.unlock();
+                }
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,185 @@
+package com.bookmind.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bookmind.dto.CatalogStats;
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.BookSnapshot;
+import com.bookmind.event.CatalogImportedEvent;
+import com.bookmind.repository.BookRepository;
+import com.bookmind.repository.CatalogAggregates;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Incrementally maintained catalog statistics behind /books/stats and /books/count.
+ *
+ * The counters are seeded from SQL aggregates at startup and then adjusted from
+ * BookChangedEvents (subtract the old state, add the new one), so reads never scan
+ * the books table. A periodic reconciliation re-seeds them from the database to
+ * correct drift from writes that bypass BookService or events lost during a re-seed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogStatistics {
+
+    private final BookRepository bookRepository;
+
+    private volatile Counters counters;
+
+    /**
+     * Running totals; every field is safe for concurrent updates.
+     */
+    private static final class Counters {
+        private final LongAdder totalBooks = new LongAdder();
+        private final LongAdder availableBooks = new LongAdder();
+        private final DoubleAdder priceSum = new DoubleAdder();
+        private final DoubleAdder ratingSum = new DoubleAdder();
+        private final ConcurrentHashMap<String, LongAdder> genreCounts = new ConcurrentHashMap<>();
+
+        // Add (sign = 1) or remove (sign = -1) the contribution of one book
+        private void apply(BookSnapshot book, int sign) {
+            if (book == null) {
+                return;
+            }
+            totalBooks.add(sign);
+            if (Boolean.TRUE.equals(book.getAvailable())) {
+                availableBooks.add(sign);
+            }
+            priceSum.add(sign * book.getPrice());
+            ratingSum.add(sign * book.getAverageRating());
+            String genre = book.getGenre();
+            if (genre != null && !genre.trim().isEmpty()) {
+                genreCounts.computeIfAbsent(genre, g -> new LongAdder()).add(sign);
+            }
+        }
+    }
+
+    /**
+     * Seed the counters once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild the counters from SQL aggregates and swap them in.
+     */
+    @Scheduled(
+        fixedDelayString = "${app.catalog-stats.reconcile-interval-ms:300000}",
+        initialDelayString = "${app.catalog-stats.reconcile-interval-ms:300000}"
+    )
+    public void reconcile() {
+        Counters fresh = new Counters();
+        CatalogAggregates.Totals totals = bookRepository.aggregateTotals();
+        fresh.totalBooks.add(totals.getTotalBooks());
+        fresh.availableBooks.add(totals.getAvailableBooks());
+        fresh.priceSum.add(totals.getPriceSum());
+        fresh.ratingSum.add(totals.getRatingSum());
+        for (CatalogAggregates.GenreCount genreCount : bookRepository.aggregateGenreCounts()) {
+            String genre = genreCount.getGenre();
+            if (!genre.trim().isEmpty()) {
+                fresh.genreCounts.computeIfAbsent(genre, g -> new LongAdder()).add(genreCount.getBookCount());
+            }
+        }
+
+        Counters previous = counters;
+        counters = fresh;
+        if (previous == null) {
+            log.info("Catalog statistics seeded with {} books", fresh.totalBooks.sum());
+        } else if (previous.totalBooks.sum() != fresh.totalBooks.sum()
+                || previous.availableBooks.sum() != fresh.availableBooks.sum()) {
+            log.warn("Catalog statistics drift corrected: total {} -> {}, available {} -> {}",
+                    previous.totalBooks.sum(), fresh.totalBooks.sum(),
+                    previous.availableBooks.sum(), fresh.availableBooks.sum());
+        } else {
+            log.debug("Catalog statistics reconciled with {} books", fresh.totalBooks.sum());
+        }
+    }
+
+    /**
+     * Apply a committed book change to the counters.
+     *
+     * @param event the book change published by BookService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Counters current = counters;
+        if (current == null) {
+            // Not seeded yet: the seed query will include this change
+            return;
+        }
+        current.apply(event.getBefore(), -1);
+        current.apply(event.getAfter(), 1);
+    }
+
+    /**
+     * Re-seed the counters after a committed bulk catalog import, which publishes no per-book events.
+     *
+     * @param event the import published by BookImportService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (counters != null) {
+            reconcile();
+        }
+    }
+
+    /**
+     * @return the total number of books in the catalog
+     */
+    public long getTotalBooks() {
+        return current().totalBooks.sum();
+    }
+
+    /**
+     * @return the current catalog statistics
+     */
+    public CatalogStats getStats() {
+        Counters current = current();
+        long totalBooks = current.totalBooks.sum();
+
+        Map<String, Long> genreDistribution = new HashMap<>();
+        current.genreCounts.forEach((genre, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                genreDistribution.put(genre, value);
+            }
+        });
+
+        return CatalogStats.builder()
+                .totalBooks(totalBooks)
+                .availableBooks(current.availableBooks.sum())
+                .averagePrice(totalBooks > 0 ? current.priceSum.sum() / totalBooks : 0.0)
+                .averageRating(totalBooks > 0 ? current.ratingSum.sum() / totalBooks : 0.0)
+                .genreDistribution(genreDistribution)
+                .build();
+    }
+
+    // Requests can arrive before ApplicationReadyEvent; seed synchronously in that case
+    private Counters current() {
+        Counters current = counters;
+        if (current == null) {
+            synchronized (this) {
+                if (counters == null) {
+                    reconcile();
+                }
+                current = counters;
+            }
+        }
+        return current;
+    }
+}
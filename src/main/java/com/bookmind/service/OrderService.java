@@ -54,7 +54,8 @@ public class OrderService {
             order.addOrderItem(orderItem);
         }
 
-        // 3. Save and return
+        // 3. Save and return. IDs come from a pooled sequence, so the order and its items
+        //    are written at flush as one INSERT plus one JDBC batch for the items
         Order savedOrder = orderRepository.save(order);
         log.info("Order created successfully with ID: {} for user ID: {}",
                 savedOrder.getId(), savedOrder.getUser().getId());
@@ -0,0 +1,91 @@
+package com.bookmind.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.BookSnapshot;
+import com.bookmind.model.Book;
+import com.bookmind.repository.BookRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Repairs the per-book rating aggregates (sum, count, histogram) maintained by BookService.
+ *
+ * Review writes adjust the aggregates incrementally, so reads never aggregate the reviews
+ * table. Writes that bypass BookService (ReviewRepository, SQL, a catalog import) leave them
+ * stale; this job finds such books with one grouped query and recomputes only those. It also
+ * backfills existing books on the first startup after the aggregate columns were added.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RatingAggregateReconciler {
+
+    // Books recomputed per transaction
+    private static final int CHUNK_SIZE = 500;
+
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Backfill and repair the aggregates once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recompute the aggregates of every book whose stored values disagree with its reviews.
+     *
+     * @return the number of books repaired
+     */
+    @Scheduled(
+        fixedDelayString = "${app.rating-aggregates.reconcile-interval-ms:3600000}",
+        initialDelayString = "${app.rating-aggregates.reconcile-interval-ms:3600000}"
+    )
+    public int reconcile() {
+        List<Long> staleIds = bookRepository.findIdsWithStaleRatingAggregates();
+        if (staleIds.isEmpty()) {
+            log.debug("Rating aggregates are consistent with reviews");
+            return 0;
+        }
+
+        for (int from = 0; from < staleIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = staleIds.subList(from, Math.min(from + CHUNK_SIZE, staleIds.size()));
+            transactionTemplate.executeWithoutResult(status -> repair(chunk));
+        }
+        log.warn("Rating aggregates recomputed for {} books", staleIds.size());
+        return staleIds.size();
+    }
+
+    private void repair(List<Long> bookIds) {
+        Map<Long, BookSnapshot> before = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, BookSnapshot::of));
+        bookRepository.recomputeRatingAggregates(bookIds, LocalDateTime.now());
+        Map<Long, Book> after = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        // Published inside the transaction so the listeners see the change after commit
+        before.forEach((id, snapshot) -> {
+            Book book = after.get(id);
+            if (book != null) {
+                eventPublisher.publishEvent(BookChangedEvent.updated(snapshot, BookSnapshot.of(book)));
+            }
+        });
+    }
+}
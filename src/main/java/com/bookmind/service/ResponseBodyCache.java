@@ -0,0 +1,141 @@
+package com.bookmind.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bookmind.event.BookCategoriesChangedEvent;
+import com.bookmind.event.BookChangedEvent;
+import com.bookmind.event.CatalogImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of serialized JSON response bodies for hot catalog reads, with a gzip variant.
+ *
+ * An entry holds the UTF-8 JSON bytes of a response and, for bodies worth compressing, the
+ * same bytes gzipped, so a hit is written out without running Jackson or the compressor.
+ * Entries are keyed by resource and tagged with the version (ETag) they were built from: a
+ * lookup with a different version rebuilds the entry, so a stale body is never served.
+ * Book entries are also dropped on every committed change of the book, and everything on
+ * a catalog import. The cache is bounded by the total size of the cached bytes.
+ */
+@Slf4j
+@Component
+public class ResponseBodyCache {
+
+    // Bodies smaller than this are not worth a gzip frame
+    private static final int MIN_GZIP_BYTES = 512;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Body> cache;
+
+    /**
+     * A cached response body.
+     *
+     * @param version ETag of the resource the body was built from
+     * @param json UTF-8 JSON bytes
+     * @param gzip gzipped JSON bytes, null if the body is too small to compress
+     */
+    public record Body(String version, byte[] json, byte[] gzip) {
+    }
+
+    public ResponseBodyCache(
+            ObjectMapper objectMapper,
+            @Value("${app.response-cache.maximum-bytes:67108864}") long maximumBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .<String, Body>weigher((key, body) ->
+                        body.json().length + (body.gzip() != null ? body.gzip().length : 0))
+                .build();
+        log.info("Response body cache configured with maximum size {} bytes", maximumBytes);
+    }
+
+    /**
+     * Key of a book detail response.
+     *
+     * @param bookId ID of the book
+     * @return the cache key
+     */
+    public static String bookKey(Long bookId) {
+        return "book:" + bookId;
+    }
+
+    /**
+     * Get the serialized body of a resource version, serializing it on a miss.
+     *
+     * @param key resource key
+     * @param version ETag of the current version of the resource
+     * @param body supplies the response object on a miss
+     * @return the cached or freshly serialized body
+     */
+    public Body get(String key, String version, Supplier<Object> body) {
+        Body cached = cache.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+        Body fresh = serialize(version, body.get());
+        cache.put(key, fresh);
+        return fresh;
+    }
+
+    /**
+     * Drop the detail body of a book after a committed change.
+     *
+     * @param event the book change published by BookService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        cache.invalidate(bookKey(event.getBookId()));
+    }
+
+    /**
+     * Drop the detail bodies of books whose categories changed.
+     *
+     * @param event the category change published by BookService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriesChanged(BookCategoriesChangedEvent event) {
+        event.getBookIds().forEach(bookId -> cache.invalidate(bookKey(bookId)));
+    }
+
+    /**
+     * Drop every body after a committed bulk catalog import.
+     *
+     * @param event the import published by BookImportService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private Body serialize(String version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Body(version, json, json.length >= MIN_GZIP_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookmind.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bookmind.event.CatalogImportedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of search result totals, keyed by the canonical form of the search filters.
+ *
+ * Paginated searches never count; a client that asks for a total gets the count of an
+ * earlier request with the same filters while it is younger than the TTL, so paging through
+ * a result set runs the COUNT at most once. Single book writes are not tracked, so a cached
+ * total can be off by the books changed since it was counted; a catalog import clears the cache.
+ */
+@Slf4j
+@Component
+public class SearchCountCache {
+
+    private final Cache<String, Long> cache;
+
+    /**
+     * A search total and whether it may be out of date.
+     */
+    public record Count(long total, boolean approximate) {
+    }
+
+    public SearchCountCache(
+            @Value("${app.search-count.maximum-size:10000}") long maximumSize,
+            @Value("${app.search-count.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        log.info("Search count cache configured with maximum size {} and TTL {}s", maximumSize, ttlSeconds);
+    }
+
+    /**
+     * Get the total for a filter set, counting only if no earlier count is cached.
+     *
+     * @param filterKey canonical form of the filters
+     * @param exactCount runs the COUNT query on a miss
+     * @return the total, approximate if it was served from the cache
+     */
+    public Count get(String filterKey, Supplier<Long> exactCount) {
+        Long cached = cache.getIfPresent(filterKey);
+        if (cached != null) {
+            return new Count(cached, true);
+        }
+        long total = exactCount.get();
+        cache.put(filterKey, total);
+        return new Count(total, false);
+    }
+
+    /**
+     * Drop every cached total after a committed bulk catalog import.
+     *
+     * @param event the import published by BookImportService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        cache.invalidateAll();
+    }
+}
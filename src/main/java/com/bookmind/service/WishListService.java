@@ -2,6 +2,7 @@ package com.bookmind.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -22,9 +23,9 @@ import com.bookmind.mapper.WishListMapper;
 import com.bookmind.model.Book;
 import com.bookmind.model.User;
 import com.bookmind.model.WishList;
-import com.bookmind.repository.BookRepository;
 import com.bookmind.repository.UserRepository;
 import com.bookmind.repository.WishListRepository;
+import com.bookmind.utility.ResourceVersion;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,7 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 public class WishListService {
 
     private final WishListRepository wishListRepository;
-    private final BookRepository bookRepository;
+    private final BookCache bookCache;
     private final UserRepository userRepository;
 
     /**
@@ -75,6 +76,22 @@ public class WishListService {
         return WishListMapper.toWishListResponse(wishList);
     }
 
+    /**
+     * Get the version of a wishlist for conditional GETs, without loading the wishlist.
+     * Covers the wishlist row, its membership and the books it contains.
+     * 
+     * @param userId the authenticated user's ID
+     * @param wishListId the wishlist ID
+     * @return the wishlist's validators, or empty if the wishlist is not found
+     */
+    public Optional<ResourceVersion> getWishListVersion(Long userId, Long wishListId) {
+        return wishListRepository.findStampByUserIdAndWishListId(userId, wishListId)
+                .map(stamp -> ResourceVersion.of(
+                        ResourceVersion.latest(stamp.getUpdatedAt(), stamp.getBooksUpdatedAt()),
+                        "wishlist", stamp.getWishListId(), stamp.getName(), stamp.getUpdatedAt(),
+                        stamp.getBookCount(), stamp.getBookIdSum(), stamp.getBooksUpdatedAt()));
+    }
+
     /**
      * Create a new wishlist for a user.
      * 
@@ -205,7 +222,7 @@ public class WishListService {
 
         WishList wishList = wishListRepository.findByUserIdAndWishListId(userId, wishListId)
                 .orElseThrow(() -> new WishListNotFoundException(wishListId));
-        Book book = bookRepository.findById(bookId)
+        Book book = bookCache.get(bookId)
                 .orElseThrow(() -> new BookNotFoundException(bookId));
 
         if (wishList.getBooks().contains(book)) {
@@ -241,7 +258,7 @@ public class WishListService {
 
         WishList wishList = wishListRepository.findByUserIdAndWishListId(userId, wishListId)
                 .orElseThrow(() -> new WishListNotFoundException(wishListId));
-        Book book = bookRepository.findById(bookId)
+        Book book = bookCache.get(bookId)
                 .orElseThrow(() -> new BookNotFoundException(bookId));
 
         if (!wishList.getBooks().contains(book)) {
@@ -284,7 +301,7 @@ public class WishListService {
             BulkOperationDetail detail = BulkOperationDetail.builder().bookId(bookId).build();
 
             try {
-                Book book = bookRepository.findById(bookId)
+                Book book = bookCache.get(bookId)
                         .orElseThrow(() -> new BookNotFoundException(bookId));
 
                 detail.setBookDescription(book.getTitle());
@@ -358,7 +375,7 @@ public class WishListService {
             BulkOperationDetail detail = BulkOperationDetail.builder().bookId(bookId).build();
 
             try {
-                Book book = bookRepository.findById(bookId)
+                Book book = bookCache.get(bookId)
                         .orElseThrow(() -> new BookNotFoundException(bookId));
 
                 detail.setBookDescription(book.getTitle());
@@ -0,0 +1,153 @@
+package com.bookmind.utility;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Burkhard-Keller tree of terms under the Levenshtein distance.
+ *
+ * Every child edge is labelled with the distance between the child and its parent, so by the
+ * triangle inequality a search within distance d only descends edges labelled within d of the
+ * query's distance to the node, which skips most of the vocabulary. Not thread-safe; terms
+ * cannot be removed, callers filter stale matches and rebuild the tree when it grows stale.
+ */
+public class BkTree {
+
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        private final String term;
+        private Map<Integer, Node> children;
+
+        private Node(String term) {
+            this.term = term;
+        }
+    }
+
+    /**
+     * A term found within the requested distance of a query.
+     */
+    public record Match(String term, int distance) {
+    }
+
+    /**
+     * Add a term; adding a term that is already present has no effect.
+     *
+     * @param term the term to add
+     */
+    public void add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(node.term, term, Math.max(node.term.length(), term.length()));
+            if (distance == 0) {
+                return;
+            }
+            if (node.children == null) {
+                node.children = new HashMap<>();
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(term));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * @return number of terms in the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find every term within maxDistance edits of the query.
+     *
+     * @param query the term to match
+     * @param maxDistance maximum Levenshtein distance, inclusive
+     * @return matches in no particular order
+     */
+    public List<Match> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            // Distances beyond the edge window are never needed exactly, so the computation may stop early
+            int bound = maxDistance + maxEdgeLabel(node);
+            int distance = distance(node.term, query, bound);
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.term, distance));
+            }
+            if (node.children == null) {
+                continue;
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static int maxEdgeLabel(Node node) {
+        int max = 0;
+        if (node.children != null) {
+            for (int label : node.children.keySet()) {
+                max = Math.max(max, label);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Levenshtein distance with an upper bound.
+     *
+     * @param a first term
+     * @param b second term
+     * @param bound distances above this value are reported as bound + 1
+     * @return the edit distance, or bound + 1 if it exceeds bound
+     */
+    public static int distance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > bound) {
+                return bound + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], bound + 1);
+    }
+}
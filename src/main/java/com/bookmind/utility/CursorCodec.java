@@ -0,0 +1,96 @@
+package com.bookmind.utility;
+
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import com.bookmind.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe cursors and decodes them back.
+ *
+ * A cursor is the base64url encoded JSON of the last row's sort keys. On decode
+ * each key is converted back to the type of the matching entity attribute, and
+ * the key set must match the requested sort so a cursor cannot be replayed
+ * against a different ordering.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorCodec {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Encode a scroll position as a cursor.
+     *
+     * @param position the position of the last element of a window
+     * @return the opaque cursor string
+     */
+    public String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as cursors");
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(keyset.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * Decode a cursor into a keyset scroll position.
+     *
+     * @param cursor the cursor from a previous response, null or blank for the first window
+     * @param sort the sort the cursor must belong to
+     * @param entityType the entity the sort keys belong to
+     * @return the scroll position to continue from
+     * @throws InvalidCursorException if the cursor is malformed or does not match the sort
+     */
+    public KeysetScrollPosition decode(String cursor, Sort sort, Class<?> entityType) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> rawKeys;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            rawKeys = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() { });
+        } catch (Exception e) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor, e);
+        }
+
+        Set<String> expected = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        if (!rawKeys.keySet().equals(expected)) {
+            throw new InvalidCursorException("Cursor does not match the requested sort order");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            Field field = ReflectionUtils.findField(entityType, property);
+            if (field == null) {
+                throw new InvalidCursorException("Unknown cursor key: " + property);
+            }
+            try {
+                keys.put(property, objectMapper.convertValue(rawKeys.get(property), field.getType()));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException("Invalid value for cursor key: " + property, e);
+            }
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,116 @@
+package com.bookmind.utility;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import com.bookmind.exception.InvalidFieldSelectionException;
+
+/**
+ * The fields of a response selected with a fields= parameter (sparse fieldsets).
+ *
+ * The selection is used twice: repositories read only the selected columns (plus the
+ * columns they need internally), and {@link #project(Object)} trims the DTO to the selected
+ * properties before serialization. An absent or blank parameter selects every field.
+ */
+public final class FieldSelection {
+
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    // null when every field is selected
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @return the selection of every field
+     */
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Parse a comma-separated fields parameter.
+     *
+     * @param fields the parameter value, may be null
+     * @param available the fields the response has
+     * @return the selection, in the order the fields were listed
+     * @throws InvalidFieldSelectionException if a listed field is not available
+     */
+    public static FieldSelection parse(String fields, Collection<String> available) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!available.contains(name)) {
+                throw new InvalidFieldSelectionException("Unknown field '" + name + "'. Valid fields are: " + available);
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(selected));
+    }
+
+    /**
+     * @return true if every field is selected
+     */
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * @param field a field name
+     * @return true if the field is selected
+     */
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * The columns to read: the selected fields plus the ones the caller always needs.
+     *
+     * @param available every field, in column order
+     * @param required fields read even when they are not selected (e.g. keys for ETags and cursors)
+     * @return the columns, in the order of available
+     */
+    public Set<String> columns(List<String> available, Collection<String> required) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (String field : available) {
+            if (includes(field) || required.contains(field)) {
+                columns.add(field);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Trim a DTO to the selected properties.
+     *
+     * @param bean the DTO
+     * @return the DTO itself if every field is selected, otherwise a map of the selected properties
+     */
+    public Object project(Object bean) {
+        if (fields == null || bean == null) {
+            return bean;
+        }
+        BeanWrapper wrapper = new BeanWrapperImpl(bean);
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : fields) {
+            projected.put(field, wrapper.getPropertyValue(field));
+        }
+        return projected;
+    }
+}
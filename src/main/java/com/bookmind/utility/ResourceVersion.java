@@ -0,0 +1,158 @@
+package com.bookmind.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import lombok.Value;
+
+/**
+ * HTTP validators (strong ETag and Last-Modified) of a resource representation.
+ *
+ * The ETag is a digest of the parts that determine the representation, typically
+ * the resource ID and modification timestamps read by a cheap version query, so a
+ * conditional GET can be answered before the resource is loaded or serialized.
+ * Each byte representation gets its own tag: CBOR, Smile and gzip bodies carry a suffix.
+ */
+@Value
+public class ResourceVersion {
+
+    // Binary encodings negotiated by WebConfiguration -> ETag suffix of their bodies
+    private static final Map<MediaType, String> BINARY_ENCODINGS = Map.of(
+            MediaType.APPLICATION_CBOR, "cbor",
+            MediaType.valueOf("application/x-jackson-smile"), "smile");
+
+    String etag;
+    // Epoch milliseconds, -1 if unknown
+    long lastModified;
+
+    /**
+     * Build the validators of a resource.
+     *
+     * @param lastModified latest modification time of anything in the representation, may be null
+     * @param parts values that determine the representation
+     * @return the resource version
+     */
+    public static ResourceVersion of(LocalDateTime lastModified, Object... parts) {
+        String digest = DigestUtils.md5DigestAsHex(Arrays.deepToString(parts).getBytes(StandardCharsets.UTF_8));
+        // Timestamps are LocalDateTime.now() in the JVM's zone, set by the entities' @PrePersist/@PreUpdate
+        // callbacks or passed to the bulk SQL updates (BookRepository, BookImportService)
+        long millis = lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        return new ResourceVersion("\"" + digest + "\"", millis);
+    }
+
+    /**
+     * Validators of the same representation sent with a content coding, whose bytes differ.
+     *
+     * @param coding the content coding, e.g. gzip
+     * @return this version with the coding appended to the ETag
+     */
+    public ResourceVersion withEncoding(String coding) {
+        return withSuffix(coding);
+    }
+
+    /**
+     * Validators of the representation the request's Accept header negotiates: CBOR and Smile
+     * bodies differ from the JSON one, so their ETags get the encoding appended.
+     *
+     * @param request the current request
+     * @return this version, or the CBOR or Smile variant of it
+     */
+    public ResourceVersion forAcceptedType(WebRequest request) {
+        String encoding = negotiatedEncoding(request.getHeader(HttpHeaders.ACCEPT));
+        return encoding != null ? withSuffix(encoding) : this;
+    }
+
+    /**
+     * Check an If-Match header against this version, with strong comparison. The tags of
+     * encoded variants (see withEncoding and forAcceptedType) match too: they name the same
+     * resource state.
+     *
+     * @param ifMatch the header value: *, or a comma-separated list of entity tags
+     * @return true if the header lists this version or is *
+     */
+    public boolean matches(String ifMatch) {
+        String variantPrefix = etag.substring(0, etag.length() - 1) + "-";
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(etag)
+                    || (candidate.startsWith(variantPrefix) && candidate.endsWith("\""))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check the request's If-None-Match / If-Modified-Since headers against this version, in
+     * the encoding the request negotiates (see forAcceptedType).
+     * Also sets the ETag and Last-Modified response headers.
+     *
+     * @param request the current request
+     * @return true if the client's copy is current and a 304 has been prepared
+     */
+    public boolean isNotModified(WebRequest request) {
+        String negotiatedEtag = forAcceptedType(request).etag;
+        return lastModified >= 0
+                ? request.checkNotModified(negotiatedEtag, lastModified)
+                : request.checkNotModified(negotiatedEtag);
+    }
+
+    private ResourceVersion withSuffix(String suffix) {
+        return new ResourceVersion(etag.substring(0, etag.length() - 1) + "-" + suffix + "\"", lastModified);
+    }
+
+    /**
+     * The binary encoding Spring MVC picks for an Accept header, or null for JSON. Mirrors its
+     * negotiation: accepted types by quality and specificity, the JSON converter before CBOR and Smile.
+     */
+    static String negotiatedEncoding(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptedTypes);
+        for (MediaType accepted : acceptedTypes) {
+            if (accepted.getQualityValue() == 0) {
+                continue;
+            }
+            if (accepted.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            for (Map.Entry<MediaType, String> encoding : BINARY_ENCODINGS.entrySet()) {
+                if (accepted.isCompatibleWith(encoding.getKey())) {
+                    return encoding.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the latest of the given timestamps, ignoring nulls
+     */
+    public static LocalDateTime latest(LocalDateTime... timestamps) {
+        LocalDateTime latest = null;
+        for (LocalDateTime timestamp : timestamps) {
+            if (timestamp != null && (latest == null || timestamp.isAfter(latest))) {
+                latest = timestamp;
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,56 @@
+package com.bookmind.utility;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for normalizing and tokenizing catalog text (titles, authors, genres, descriptions)
+ * so that in-memory indexes and incoming queries agree on the same terms.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Lower-case the text, strip diacritics and collapse every run of
+     * non-alphanumeric characters into a single space.
+     *
+     * @param text the raw text, may be null
+     * @return the normalized text, empty string if input is null
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Split the text into normalized terms.
+     *
+     * @param text the raw text, may be null
+     * @return list of terms in their original order, empty list if there are none
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : normalized.split(" ")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,10 @@
+-- Trigram (pg_trgm) GIN indexes backing the substring search on title, author and genre.
+-- The expressions match the LOWER(...) LIKE predicates issued by BookTrigramSearchImpl,
+-- so PostgreSQL can answer '%term%' lookups from the index instead of scanning books.
+-- Applied once by Flyway after Hibernate has updated the schema; every statement is idempotent.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_author_trgm ON books USING gin (LOWER(author) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_genre_trgm ON books USING gin (LOWER(genre) gin_trgm_ops);
@@ -0,0 +1,61 @@
+-- Sequence-backed primary keys for the pooled-lo ID optimizer.
+-- The entities draw IDs from <table>_seq with allocationSize = 50: one nextval() reserves a block
+-- of 50 IDs, so inserts no longer need a round trip each to learn their key and can be sent as
+-- JDBC batches. Tables created before this change have IDENTITY columns; their identity is
+-- dropped and the column defaults to the new sequence, so raw SQL inserts draw from the same source.
+-- The sequence is moved past MAX(id) but never backwards, which keeps blocks already handed out
+-- to running instances valid. Applied once by Flyway; every statement is idempotent.
+
+CREATE SEQUENCE IF NOT EXISTS books_seq INCREMENT BY 50;
+ALTER TABLE books ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE books_seq INCREMENT BY 50 OWNED BY books.id;
+ALTER TABLE books ALTER COLUMN id SET DEFAULT nextval('books_seq');
+SELECT setval('books_seq', GREATEST((SELECT last_value FROM books_seq), (SELECT COALESCE(MAX(id), 0) FROM books) + 1));
+
+CREATE SEQUENCE IF NOT EXISTS carts_seq INCREMENT BY 50;
+ALTER TABLE carts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE carts_seq INCREMENT BY 50 OWNED BY carts.id;
+ALTER TABLE carts ALTER COLUMN id SET DEFAULT nextval('carts_seq');
+SELECT setval('carts_seq', GREATEST((SELECT last_value FROM carts_seq), (SELECT COALESCE(MAX(id), 0) FROM carts) + 1));
+
+CREATE SEQUENCE IF NOT EXISTS cart_items_seq INCREMENT BY 50;
+ALTER TABLE cart_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE cart_items_seq INCREMENT BY 50 OWNED BY cart_items.id;
+ALTER TABLE cart_items ALTER COLUMN id SET DEFAULT nextval('cart_items_seq');
+SELECT setval('cart_items_seq', GREATEST((SELECT last_value FROM cart_items_seq), (SELECT COALESCE(MAX(id), 0) FROM cart_items) + 1));
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE orders_seq INCREMENT BY 50 OWNED BY orders.id;
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+SELECT setval('orders_seq', GREATEST((SELECT last_value FROM orders_seq), (SELECT COALESCE(MAX(id), 0) FROM orders) + 1));
+
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE order_items_seq INCREMENT BY 50 OWNED BY order_items.id;
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('order_items_seq');
+SELECT setval('order_items_seq', GREATEST((SELECT last_value FROM order_items_seq), (SELECT COALESCE(MAX(id), 0) FROM order_items) + 1));
+
+CREATE SEQUENCE IF NOT EXISTS reviews_seq INCREMENT BY 50;
+ALTER TABLE reviews ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE reviews_seq INCREMENT BY 50 OWNED BY reviews.id;
+ALTER TABLE reviews ALTER COLUMN id SET DEFAULT nextval('reviews_seq');
+SELECT setval('reviews_seq', GREATEST((SELECT last_value FROM reviews_seq), (SELECT COALESCE(MAX(id), 0) FROM reviews) + 1));
+
+CREATE SEQUENCE IF NOT EXISTS whishlists_seq INCREMENT BY 50;
+ALTER TABLE whishlists ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE whishlists_seq INCREMENT BY 50 OWNED BY whishlists.id;
+ALTER TABLE whishlists ALTER COLUMN id SET DEFAULT nextval('whishlists_seq');
+SELECT setval('whishlists_seq', GREATEST((SELECT last_value FROM whishlists_seq), (SELECT COALESCE(MAX(id), 0) FROM whishlists) + 1));
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE users_seq INCREMENT BY 50 OWNED BY users.id;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users) + 1));
+
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE categories_seq INCREMENT BY 50 OWNED BY categories.id;
+ALTER TABLE categories ALTER COLUMN id SET DEFAULT nextval('categories_seq');
+SELECT setval('categories_seq', GREATEST((SELECT last_value FROM categories_seq), (SELECT COALESCE(MAX(id), 0) FROM categories) + 1));
@@ -0,0 +1,5 @@
+-- B-tree index on books.isbn for the bulk catalog import, which matches incoming rows to
+-- existing books by ISBN. Not unique: existing data may already contain duplicate ISBNs.
+-- Applied once by Flyway after Hibernate has updated the schema; every statement is idempotent.
+
+CREATE INDEX IF NOT EXISTS idx_books_isbn ON books (isbn);
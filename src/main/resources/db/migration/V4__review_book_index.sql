@@ -0,0 +1,5 @@
+-- Index on reviews.book_id (PostgreSQL does not index foreign keys by itself). Used by the
+-- per-book review listing and by the reconciliation of the rating aggregates on books.
+-- Applied once by Flyway after Hibernate has updated the schema; every statement is idempotent.
+
+CREATE INDEX IF NOT EXISTS idx_reviews_book_id ON reviews (book_id);
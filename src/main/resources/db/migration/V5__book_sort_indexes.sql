@@ -0,0 +1,13 @@
+-- B-tree indexes backing the keyset-paginated sorts whitelisted in BookService.SORTABLE_FIELDS.
+-- Each index is (sort column, id), matching ORDER BY <column>, id in either direction, so
+-- a page is read as an index range scan from the cursor instead of sorting every match.
+-- Applied once by Flyway after Hibernate has updated the schema; every statement is idempotent.
+
+CREATE INDEX IF NOT EXISTS idx_books_title_id ON books (title, id);
+CREATE INDEX IF NOT EXISTS idx_books_author_id ON books (author, id);
+CREATE INDEX IF NOT EXISTS idx_books_genre_id ON books (genre, id);
+CREATE INDEX IF NOT EXISTS idx_books_price_id ON books (price, id);
+CREATE INDEX IF NOT EXISTS idx_books_average_rating_id ON books (average_rating, id);
+CREATE INDEX IF NOT EXISTS idx_books_publication_year_id ON books (publication_year, id);
+CREATE INDEX IF NOT EXISTS idx_books_pages_id ON books (pages, id);
+CREATE INDEX IF NOT EXISTS idx_books_created_at_id ON books (created_at, id);
@@ -0,0 +1,107 @@
+package com.bookmind.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.bookmind.exception.InvalidSearchQueryException;
+import com.bookmind.repository.BookQueryParser.Clause;
+
+class BookQueryParserTest {
+
+    @Test
+    void splitsFieldClauses() {
+        assertThat(BookQueryParser.split("author:le guin price:<20 rating:>=4"))
+                .containsExactly(new Clause("author", "le guin"), new Clause("price", "<20"), new Clause("rating", ">=4"));
+    }
+
+    @Test
+    void leadingWordsSearchTheTitle() {
+        assertThat(BookQueryParser.split("  the dispossessed Author:Le Guin"))
+                .containsExactly(new Clause("title", "the dispossessed"), new Clause("author", "Le Guin"));
+        assertThat(BookQueryParser.split("dune")).containsExactly(new Clause("title", "dune"));
+    }
+
+    @Test
+    void emptyQueryHasNoClauses() {
+        assertThat(BookQueryParser.split(null)).isEmpty();
+        assertThat(BookQueryParser.split("   ")).isEmpty();
+    }
+
+    @Test
+    void canonicalFormIgnoresCaseOnlyWhereMatchingDoes() {
+        assertThat(BookQueryParser.canonicalize("Title:DUNE available:TRUE"))
+                .isEqualTo(BookQueryParser.canonicalize("title:dune  available:true"));
+        assertThat(BookQueryParser.canonicalize("isbn:012345678X"))
+                .isNotEqualTo(BookQueryParser.canonicalize("isbn:012345678x"));
+        assertThat(BookQueryParser.canonicalize("title:\"a b\""))
+                .isNotEqualTo(BookQueryParser.canonicalize("title:a title:b"));
+        assertThat(BookQueryParser.canonicalize(null)).isEmpty();
+    }
+
+    @Test
+    void keepsColonsInsideQuotes() {
+        assertThat(BookQueryParser.split("title:\"Dune: Messiah\" year:1969"))
+                .containsExactly(new Clause("title", "Dune: Messiah"), new Clause("year", "1969"));
+        assertThat(BookQueryParser.split("\"Dune: Messiah\" author:herbert"))
+                .containsExactly(new Clause("title", "Dune: Messiah"), new Clause("author", "herbert"));
+        assertThat(BookQueryParser.split("description:\"see author:herbert\""))
+                .containsExactly(new Clause("description", "see author:herbert"));
+    }
+
+    @Test
+    void keepsColonsAfterWordsThatAreNotFields() {
+        assertThat(BookQueryParser.split("Star Wars: A New Hope"))
+                .containsExactly(new Clause("title", "Star Wars: A New Hope"));
+        assertThat(BookQueryParser.split("title:Star Wars: A New Hope author:lucas"))
+                .containsExactly(new Clause("title", "Star Wars: A New Hope"), new Clause("author", "lucas"));
+    }
+
+    @Test
+    void fieldNamesStartClausesEvenWhenFollowedByASpace() {
+        assertThat(BookQueryParser.split("rating: >=4 year: 1990..2000"))
+                .containsExactly(new Clause("rating", ">=4"), new Clause("year", "1990..2000"));
+    }
+
+    @Test
+    void onlyMatchesFieldsAtWordStarts() {
+        assertThat(BookQueryParser.split("isbn:978-0:441"))
+                .containsExactly(new Clause("isbn", "978-0:441"));
+    }
+
+    @Test
+    void parsesEveryKindOfField() {
+        assertThat(BookQueryParser.parse("dune author:herbert genre:\"science fiction\" description:desert "
+                + "isbn:9780441172719 price:10..20 rating:>4.5 year:<=1970 pages:=412 available:TRUE")).isNotNull();
+    }
+
+    @Test
+    void rejectsUnknownFields() {
+        assertThatThrownBy(() -> BookQueryParser.parse("auther:le guin"))
+                .isInstanceOf(InvalidSearchQueryException.class)
+                .hasMessageContaining("Unknown search field 'auther'");
+    }
+
+    @Test
+    void rejectsMissingValues() {
+        assertThatThrownBy(() -> BookQueryParser.parse("author: price:<20"))
+                .isInstanceOf(InvalidSearchQueryException.class)
+                .hasMessageContaining("'author'");
+        assertThatThrownBy(() -> BookQueryParser.parse("dune rating:\"\""))
+                .isInstanceOf(InvalidSearchQueryException.class)
+                .hasMessageContaining("'rating'");
+    }
+
+    @Test
+    void rejectsMalformedValues() {
+        assertThatThrownBy(() -> BookQueryParser.parse("price:cheap"))
+                .isInstanceOf(InvalidSearchQueryException.class)
+                .hasMessageContaining("'price'");
+        assertThatThrownBy(() -> BookQueryParser.parse("year:1990.5"))
+                .isInstanceOf(InvalidSearchQueryException.class);
+        assertThatThrownBy(() -> BookQueryParser.parse("available:maybe"))
+                .isInstanceOf(InvalidSearchQueryException.class)
+                .hasMessageContaining("true or false");
+    }
+}
@@ -0,0 +1,120 @@
+package com.bookmind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bookmind.dto.BookSuggestion;
+import com.bookmind.event.BookSnapshot;
+
+class BookSuggestIndexTest {
+
+    private BookSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Only rebuild() reads the repository
+        index = new BookSuggestIndex(null);
+    }
+
+    @Test
+    void findsBooksFromAnyWordOfTitleOrAuthor() {
+        index.index(book(1L, "Harry Potter and the Philosopher's Stone", "J. K. Rowling", "978-0-7475-3269-9", 4.5, 100));
+        index.index(book(2L, "Dune", "Frank Herbert", "978-0-441-17271-9", 4.2, 80));
+
+        assertThat(ids(index.suggest("pot", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("HERB", 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("philosopher s", 10))).containsExactly(1L);
+        assertThat(index.suggest("xyz", 10)).isEmpty();
+        assertThat(index.suggest("  -- ", 10)).isEmpty();
+    }
+
+    @Test
+    void findsBooksByIsbnTypedWithOrWithoutSeparators() {
+        index.index(book(1L, "Dune", "Frank Herbert", "978-0-441-17271-9", 4.2, 80));
+
+        assertThat(ids(index.suggest("978044117", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("978-0-441", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void ranksByRatingWeightedWithRatingCount() {
+        index.index(book(1L, "Space Opera", "A", "1", 5.0, 1));
+        index.index(book(2L, "Space Cadet", "B", "2", 4.5, 500));
+        index.index(book(3L, "Space Dust", "C", "3", 0.0, 0));
+
+        assertThat(ids(index.suggest("space", 10))).containsExactly(2L, 1L, 3L);
+        assertThat(ids(index.suggest("space", 2))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void reranksBooksWhenTheyAreIndexedAgain() {
+        index.index(book(1L, "Space Opera", "A", "1", 3.0, 10));
+        index.index(book(2L, "Space Cadet", "B", "2", 4.0, 10));
+        assertThat(ids(index.suggest("spa", 10))).containsExactly(2L, 1L);
+
+        index.index(book(1L, "Space Opera", "A", "1", 5.0, 50));
+        assertThat(ids(index.suggest("spa", 10))).containsExactly(1L, 2L);
+
+        index.index(book(1L, "Opera Seria", "A", "1", 5.0, 50));
+        assertThat(ids(index.suggest("spa", 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("seria", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void removedBooksAreNoLongerSuggested() {
+        index.index(book(1L, "Space Opera", "A", "1", 5.0, 10));
+        index.index(book(2L, "Space Cadet", "B", "2", 4.0, 10));
+
+        index.remove(1L);
+        assertThat(ids(index.suggest("space", 10))).containsExactly(2L);
+        assertThat(index.suggest("opera", 10)).isEmpty();
+
+        index.remove(2L);
+        index.remove(3L);
+        assertThat(index.suggest("space", 10)).isEmpty();
+    }
+
+    @Test
+    void keepsTheBestBooksOfASubtreeAfterRemovingOne() {
+        for (long id = 1; id <= BookSuggestIndex.MAX_SUGGESTIONS + 5; id++) {
+            index.index(book(id, "Saga " + id, "Author", String.valueOf(id), id / 10.0, 10));
+        }
+        long best = BookSuggestIndex.MAX_SUGGESTIONS + 5;
+
+        index.remove(best);
+        List<Long> suggested = ids(index.suggest("saga", BookSuggestIndex.MAX_SUGGESTIONS));
+        assertThat(suggested).hasSize(BookSuggestIndex.MAX_SUGGESTIONS).doesNotContain(best);
+        assertThat(suggested.get(0)).isEqualTo(best - 1);
+        assertThat(suggested.get(suggested.size() - 1)).isEqualTo(5L);
+    }
+
+    @Test
+    void checksPrefixesLongerThanTheStoredKeysAgainstTheFullText() {
+        index.index(book(1L, "The Complete Chronicles of Narnia Volume One", "C. S. Lewis", "1", 4.0, 10));
+        index.index(book(2L, "The Complete Chronicles of Narnia Volume Two", "C. S. Lewis", "2", 3.0, 10));
+
+        assertThat(ids(index.suggest("the complete chronicles of narnia", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.suggest("the complete chronicles of narnia volume t", 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("complete chronicles of narnia volume o", 10))).containsExactly(1L);
+        assertThat(index.suggest("the complete chronicles of narnia volume three", 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<BookSuggestion> suggestions) {
+        return suggestions.stream().map(BookSuggestion::getId).toList();
+    }
+
+    private static BookSnapshot book(Long id, String title, String author, String isbn, double rating, int ratingCount) {
+        return BookSnapshot.builder()
+                .id(id)
+                .title(title)
+                .author(author)
+                .isbn(isbn)
+                .averageRating(rating)
+                .ratingCount(ratingCount)
+                .build();
+    }
+}
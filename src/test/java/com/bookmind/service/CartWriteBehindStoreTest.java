@@ -0,0 +1,254 @@
+package com.bookmind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bookmind.model.Book;
+import com.bookmind.model.Cart;
+import com.bookmind.model.User;
+import com.bookmind.repository.BookRepository;
+import com.bookmind.repository.CartItemRepository;
+import com.bookmind.repository.CartRepository;
+import com.bookmind.service.CartWriteBehindStore.CartSnapshot;
+import com.bookmind.service.CartWriteBehindStore.Line;
+import com.bookmind.service.CartWriteBehindStore.ReplicationListener;
+
+import jakarta.persistence.EntityNotFoundException;
+
+class CartWriteBehindStoreTest {
+
+    private static final long DELETED_BOOK_ID = 99L;
+
+    private final CartRepository cartRepository = mock(CartRepository.class);
+    private final CartItemRepository cartItemRepository = mock(CartItemRepository.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final List<CartSnapshot> changes = new ArrayList<>();
+    private final List<CartSnapshot> flushes = new ArrayList<>();
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rollbackOfCheckoutRestoresTheFlushedLines() {
+        CartWriteBehindStore store = store(1800);
+        store.edit(1L, () -> cart(10L, 1L), cached -> cached.put(new Line(5L, 12.5, 2)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        String result = store.flushAndRun(1L, () -> cart(10L, 1L), () -> "order", CartWriteBehindStore.CachedCart::clear);
+        assertThat(result).isEqualTo("order");
+        assertThat(store.cachedSnapshot(1L).orElseThrow().lines()).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(store.cachedSnapshot(1L).orElseThrow().lines()).containsExactly(new Line(5L, 12.5, 2));
+        // The rolled-back flush had written the edit, so it is written again
+        store.flush();
+        verify(cartRepository, times(2)).findAllWithItemsByIdIn(anyCollection());
+        assertThat(flushes).hasSize(1);
+        assertThat(changes.get(changes.size() - 1).lines()).containsExactly(new Line(5L, 12.5, 2));
+    }
+
+    @Test
+    void commitOfCheckoutKeepsTheClearedCart() {
+        CartWriteBehindStore store = store(1800);
+        store.edit(1L, () -> cart(10L, 1L), cached -> cached.put(new Line(5L, 12.5, 2)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        store.flushAndRun(1L, () -> cart(10L, 1L), () -> "order", CartWriteBehindStore.CachedCart::clear);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(store.cachedSnapshot(1L).orElseThrow().lines()).isEmpty();
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0).lines()).containsExactly(new Line(5L, 12.5, 2));
+    }
+
+    @Test
+    void failedBatchFallsBackToFlushingEachCart() {
+        CartWriteBehindStore store = store(1800);
+        store.edit(1L, () -> cart(10L, 1L), cached -> cached.put(new Line(5L, 12.5, 1)));
+        store.edit(2L, () -> cart(20L, 2L), cached -> {
+            cached.put(new Line(6L, 8.0, 1));
+            cached.put(new Line(DELETED_BOOK_ID, 3.0, 1));
+        });
+        when(cartRepository.findAllWithItemsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> cart(id, id / 10)).toList();
+        });
+        when(bookRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            if (id == DELETED_BOOK_ID) {
+                throw new EntityNotFoundException("book " + id);
+            }
+            return book(id);
+        });
+        when(bookRepository.findExistingIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != DELETED_BOOK_ID).toList();
+        });
+
+        store.flush();
+
+        // The batch, cart 1 alone, cart 2 alone, cart 2 without the deleted book
+        verify(cartRepository, times(4)).findAllWithItemsByIdIn(anyCollection());
+        assertThat(store.cachedSnapshot(1L).orElseThrow().lines()).containsExactly(new Line(5L, 12.5, 1));
+        assertThat(store.cachedSnapshot(2L).orElseThrow().lines()).containsExactly(new Line(6L, 8.0, 1));
+        assertThat(flushes).extracting(CartSnapshot::cartId).containsExactlyInAnyOrder(10L, 20L);
+
+        // Both carts are clean now
+        store.flush();
+        verify(cartRepository, times(4)).findAllWithItemsByIdIn(anyCollection());
+    }
+
+    @Test
+    void cartThatStillFailsStaysDirty() {
+        CartWriteBehindStore store = store(1800);
+        store.edit(1L, () -> cart(10L, 1L), cached -> cached.put(new Line(5L, 12.5, 1)));
+        when(cartRepository.findAllWithItemsByIdIn(anyCollection())).thenThrow(new IllegalStateException("down"));
+        when(bookRepository.findExistingIds(anyCollection())).thenReturn(List.of(5L));
+
+        store.flush();
+        store.flush();
+
+        // Batch and alone on each flush; nothing was dropped from the cart
+        verify(cartRepository, times(4)).findAllWithItemsByIdIn(anyCollection());
+        assertThat(store.cachedSnapshot(1L).orElseThrow().lines()).containsExactly(new Line(5L, 12.5, 1));
+        assertThat(flushes).isEmpty();
+    }
+
+    @Test
+    void idleEvictionSkipsACartBeingEdited() throws Exception {
+        CartWriteBehindStore store = store(0);
+        AtomicInteger loads = new AtomicInteger();
+        store.snapshot(1L, () -> {
+            loads.incrementAndGet();
+            return cart(10L, 1L);
+        });
+
+        CountDownLatch editing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<CartSnapshot> edit = CompletableFuture.supplyAsync(() ->
+                store.edit(1L, () -> cart(10L, 1L), cached -> {
+                    editing.countDown();
+                    await(release);
+                    cached.put(new Line(5L, 12.5, 1));
+                }));
+        assertThat(editing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The cart is clean and idle, but locked by the edit
+        store.flush();
+        release.countDown();
+        edit.get(5, TimeUnit.SECONDS);
+
+        assertThat(store.cachedSnapshot(1L).orElseThrow().lines()).containsExactly(new Line(5L, 12.5, 1));
+        store.flush();
+        verify(cartRepository).findAllWithItemsByIdIn(anyCollection());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void editAfterEvictionReloadsTheCart() {
+        CartWriteBehindStore store = store(0);
+        AtomicInteger loads = new AtomicInteger();
+        store.snapshot(1L, () -> {
+            loads.incrementAndGet();
+            return cart(10L, 1L);
+        });
+
+        store.flush();
+        assertThat(store.cachedSnapshot(1L)).isEmpty();
+
+        CartSnapshot edited = store.edit(1L, () -> {
+            loads.incrementAndGet();
+            return cart(10L, 1L);
+        }, cached -> cached.put(new Line(5L, 12.5, 1)));
+        assertThat(edited.lines()).containsExactly(new Line(5L, 12.5, 1));
+        assertThat(loads).hasValue(2);
+        verify(cartRepository, never()).findAllWithItemsByIdIn(anyCollection());
+    }
+
+    @Test
+    void editThatChangesNothingKeepsTheRevision() {
+        CartWriteBehindStore store = store(1800);
+        long revision = store.snapshot(1L, () -> cart(10L, 1L)).revision();
+
+        CartSnapshot unchanged = store.editIfChanged(1L, () -> cart(10L, 1L), cached -> false);
+
+        assertThat(unchanged.revision()).isEqualTo(revision);
+        assertThat(changes).isEmpty();
+        store.flush();
+        verify(cartRepository, never()).findAllWithItemsByIdIn(anyCollection());
+    }
+
+    private CartWriteBehindStore store(long idleTimeoutSeconds) {
+        StaticListableBeanFactory listeners = new StaticListableBeanFactory();
+        listeners.addBean("recorder", new ReplicationListener() {
+            @Override
+            public void cartChanged(CartSnapshot cart) {
+                changes.add(cart);
+            }
+
+            @Override
+            public void cartsFlushed(List<CartSnapshot> carts) {
+                flushes.addAll(carts);
+            }
+        });
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new CartWriteBehindStore(cartRepository, cartItemRepository, bookRepository, transactionTemplate,
+                listeners.getBeanProvider(ReplicationListener.class), true, idleTimeoutSeconds);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Cart cart(Long id, Long userId) {
+        User user = new User();
+        user.setId(userId);
+        Cart cart = new Cart();
+        cart.setId(id);
+        cart.setUser(user);
+        return cart;
+    }
+
+    private static Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        return book;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
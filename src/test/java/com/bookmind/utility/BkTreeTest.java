@@ -0,0 +1,87 @@
+package com.bookmind.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BkTreeTest {
+
+    @Test
+    void computesLevenshteinDistance() {
+        assertThat(BkTree.distance("kitten", "sitting", 10)).isEqualTo(3);
+        assertThat(BkTree.distance("flaw", "lawn", 10)).isEqualTo(2);
+        assertThat(BkTree.distance("", "abc", 10)).isEqualTo(3);
+        assertThat(BkTree.distance("dune", "dune", 0)).isZero();
+    }
+
+    @Test
+    void reportsDistancesAboveTheBoundAsBoundPlusOne() {
+        assertThat(BkTree.distance("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(BkTree.distance("kitten", "sitting", 1)).isEqualTo(2);
+        assertThat(BkTree.distance("a", "abcdef", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void ignoresDuplicateTerms() {
+        BkTree tree = new BkTree();
+        tree.add("dune");
+        tree.add("dune");
+        tree.add("done");
+
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.search("dune", 0)).containsExactly(new BkTree.Match("dune", 0));
+    }
+
+    @Test
+    void findsTermsWithinTheDistance() {
+        BkTree tree = new BkTree();
+        for (String term : List.of("tolkien", "tolstoy", "token", "talking", "hobbit", "rowling")) {
+            tree.add(term);
+        }
+
+        assertThat(tree.search("tolkein", 2))
+                .containsExactlyInAnyOrder(new BkTree.Match("tolkien", 2), new BkTree.Match("token", 2));
+        assertThat(tree.search("hobit", 1)).containsExactly(new BkTree.Match("hobbit", 1));
+        assertThat(tree.search("asimov", 1)).isEmpty();
+        assertThat(new BkTree().search("dune", 2)).isEmpty();
+    }
+
+    @Test
+    void matchesABruteForceScan() {
+        Random random = new Random(42);
+        List<String> terms = new ArrayList<>();
+        BkTree tree = new BkTree();
+        for (int i = 0; i < 2000; i++) {
+            String term = randomTerm(random);
+            terms.add(term);
+            tree.add(term);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            String query = randomTerm(random);
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                List<BkTree.Match> expected = new ArrayList<>();
+                for (String term : terms.stream().distinct().toList()) {
+                    int distance = BkTree.distance(term, query, Integer.MAX_VALUE - 1);
+                    if (distance <= maxDistance) {
+                        expected.add(new BkTree.Match(term, distance));
+                    }
+                }
+                assertThat(tree.search(query, maxDistance)).containsExactlyInAnyOrderElementsOf(expected);
+            }
+        }
+    }
+
+    private static String randomTerm(Random random) {
+        int length = 3 + random.nextInt(6);
+        StringBuilder term = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            term.append((char) ('a' + random.nextInt(5)));
+        }
+        return term.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package com.bookmind.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        assertThat(readAll("isbn,title\n1,Dune\n"))
+                .containsExactly(List.of("isbn", "title"), List.of("1", "Dune"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertThat(readAll(",a,,\n\n")).containsExactly(List.of("", "a", "", ""), List.of(""));
+    }
+
+    @Test
+    void readsLastRecordWithoutLineBreak() throws IOException {
+        assertThat(readAll("a,b\nc,d")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void acceptsCrlfAndBareCrEndings() throws IOException {
+        assertThat(readAll("a\r\nb\rc\n")).containsExactly(List.of("a"), List.of("b"), List.of("c"));
+    }
+
+    @Test
+    void unquotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        assertThat(readAll("\"Dune, Messiah\",\"say \"\"hi\"\"\",\"two\nlines\"\n"))
+                .containsExactly(List.of("Dune, Messiah", "say \"hi\"", "two\nlines"));
+    }
+
+    @Test
+    void treatsQuotesInsideUnquotedFieldsAsText() throws IOException {
+        assertThat(readAll("5\" disk,\"ab\"c\n")).containsExactly(List.of("5\" disk", "abc"));
+    }
+
+    @Test
+    void tracksTheLineEachRecordStartsOn() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("a,\"x\ny\"\nb\r\nc\n"))) {
+            reader.readRecord();
+            assertThat(reader.getRecordLine()).isEqualTo(1);
+            reader.readRecord();
+            assertThat(reader.getRecordLine()).isEqualTo(3);
+            reader.readRecord();
+            assertThat(reader.getRecordLine()).isEqualTo(4);
+            assertThat(reader.readRecord()).isNull();
+        }
+    }
+
+    @Test
+    void rejectsUnterminatedQuotedField() {
+        assertThatThrownBy(() -> readAll("a\n\"open,b\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    @Test
+    void returnsNothingForEmptyInput() throws IOException {
+        assertThat(readAll("")).isEmpty();
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
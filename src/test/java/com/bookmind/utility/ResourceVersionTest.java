@@ -0,0 +1,69 @@
+package com.bookmind.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class ResourceVersionTest {
+
+    private final ResourceVersion version = ResourceVersion.of(null, "book", 1L);
+
+    @Test
+    void jsonIsNegotiatedByDefault() {
+        assertThat(ResourceVersion.negotiatedEncoding(null)).isNull();
+        assertThat(ResourceVersion.negotiatedEncoding("*/*")).isNull();
+        assertThat(ResourceVersion.negotiatedEncoding("application/json")).isNull();
+        assertThat(ResourceVersion.negotiatedEncoding("application/*")).isNull();
+    }
+
+    @Test
+    void binaryEncodingsAreNegotiatedWhenAskedFor() {
+        assertThat(ResourceVersion.negotiatedEncoding("application/cbor")).isEqualTo("cbor");
+        assertThat(ResourceVersion.negotiatedEncoding("application/x-jackson-smile")).isEqualTo("smile");
+        assertThat(ResourceVersion.negotiatedEncoding("application/cbor, */*;q=0.1")).isEqualTo("cbor");
+    }
+
+    @Test
+    void qualityDecidesBetweenEncodings() {
+        assertThat(ResourceVersion.negotiatedEncoding("application/cbor;q=0.5, application/json")).isNull();
+        assertThat(ResourceVersion.negotiatedEncoding("application/json;q=0, application/cbor")).isEqualTo("cbor");
+    }
+
+    @Test
+    void eachEncodingHasItsOwnEtag() {
+        String json = etagSentFor("application/json");
+        String cbor = etagSentFor("application/cbor");
+        String smile = etagSentFor("application/x-jackson-smile");
+
+        assertThat(json).isEqualTo(version.getEtag());
+        assertThat(cbor).isNotEqualTo(json).isNotEqualTo(smile);
+        assertThat(version.matches(cbor)).isTrue();
+        assertThat(version.matches(smile)).isTrue();
+    }
+
+    @Test
+    void notModifiedOnlyForTheSameEncoding() {
+        String cbor = etagSentFor("application/cbor");
+
+        assertThat(version.isNotModified(request("application/cbor", cbor))).isTrue();
+        assertThat(version.isNotModified(request("application/json", cbor))).isFalse();
+    }
+
+    private String etagSentFor(String accept) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/books/1");
+        request.addHeader("Accept", accept);
+        version.isNotModified(new ServletWebRequest(request, response));
+        return response.getHeader("ETag");
+    }
+
+    private ServletWebRequest request(String accept, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/books/1");
+        request.addHeader("Accept", accept);
+        request.addHeader("If-None-Match", ifNoneMatch);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}